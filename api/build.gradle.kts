@@ -1,3 +1,4 @@
+import com.github.retrooper.compression.strategy.dir.BlockStateSnapshotDirStrategy
 import com.github.retrooper.compression.strategy.dir.JsonBase64DataDirStrategy
 import com.github.retrooper.compression.strategy.dir.JsonRegistryCompressionDirStrategy
 import com.github.retrooper.compression.strategy.dir.JsonToNbtDirStrategy
@@ -50,6 +51,9 @@ mappingCompression {
     with<JsonToNbtDirStrategy> {
         compress("data")
     }
+    with<BlockStateSnapshotDirStrategy> {
+        compress("data", "block_state")
+    }
     with<JsonBase64DataDirStrategy> {
         compress("item_base_components")
     }
@@ -20,6 +20,7 @@ package com.github.retrooper.packetevents;
 
 import com.github.retrooper.packetevents.event.EventManager;
 import com.github.retrooper.packetevents.injector.ChannelInjector;
+import com.github.retrooper.packetevents.manager.metrics.PacketMetrics;
 import com.github.retrooper.packetevents.manager.player.PlayerManager;
 import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.manager.server.ServerManager;
@@ -44,6 +45,10 @@ public abstract class PacketEventsAPI<T> {
         return eventManager;
     }
 
+    public PacketMetrics getMetrics() {
+        return eventManager.getMetrics();
+    }
+
     public PacketEventsSettings getSettings() {
         return settings;
     }
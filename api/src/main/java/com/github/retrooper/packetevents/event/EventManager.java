@@ -20,6 +20,13 @@ package com.github.retrooper.packetevents.event;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.exception.InvalidHandshakeException;
+import com.github.retrooper.packetevents.manager.metrics.PacketMetrics;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -43,6 +50,20 @@ import java.util.logging.Level;
 
 public class EventManager {
 
+    private static final ConnectionState[] CONNECTION_STATES = ConnectionState.values();
+    private static final PacketSide[] PACKET_SIDES = PacketSide.values();
+    private static final ClientVersion[] CLIENT_VERSIONS = ClientVersion.values();
+    //All packet type constants, indexed by [state * sides + side][packet type ordinal]
+    private static final PacketTypeCommon[][] PACKET_TYPES = new PacketTypeCommon[CONNECTION_STATES.length * PACKET_SIDES.length][];
+
+    static {
+        for (ConnectionState state : CONNECTION_STATES) {
+            for (PacketSide side : PACKET_SIDES) {
+                PACKET_TYPES[tableIndex(state, side)] = PacketType.values(side, state);
+            }
+        }
+    }
+
     //Using a ConcurrentHashMap is faster and more secure here, compared to Collections.synchronizedMap(new EnumMap<>(PacketListenerPriority.class))
     //This is mainly due to:
     //1. On each modification Collections.synchronizedMap synchronizes the whole Map object, while ConcurrentHashMap only it's internal, currently modified Node
@@ -52,6 +73,13 @@ public class EventManager {
     //Since reads greatly outnumber writes, create an array for the best possible iteration time
     //Updated as a whole on writes, no index modifications are allowed
     private volatile PacketListenerCommon[] listeners = new PacketListenerCommon[0];
+    //Listeners interested in each packet type, indexed by [state * sides + side][packet type ordinal]
+    //Recalculated together with the 'listeners' array, allows skipping listeners which ignore a packet type
+    private volatile PacketListenerCommon[][][] packetTypeListeners = createPacketTypeListeners(new PacketListenerCommon[0]);
+    //Bitsets of the packet ids which need an event, indexed by [state * sides + side][client version ordinal]
+    //Allows skipping packets without resolving their packet type, recalculated together with the listener tables
+    private volatile long[][][] listenedPacketIds = createListenedPacketIds(this.packetTypeListeners);
+    private final PacketMetrics metrics = new PacketMetrics();
 
 
     /**
@@ -79,7 +107,11 @@ public class EventManager {
      * @param postCallListenerAction The action to be run after all the listeners have finished processing
      */
     public void callEvent(PacketEvent event, @Nullable Runnable postCallListenerAction) {
-        for (PacketListenerCommon listener : listeners) {
+        //Only time listeners if metrics are enabled, this keeps the disabled case at a single volatile read
+        ProtocolPacketEvent measuredEvent = this.metrics.isEnabled() && event instanceof ProtocolPacketEvent
+                ? (ProtocolPacketEvent) event : null;
+        for (PacketListenerCommon listener : this.getListeners(event)) {
+            long start = measuredEvent != null ? System.nanoTime() : 0L;
             try {
                 event.call(listener);
             } catch (Exception t) {
@@ -88,16 +120,67 @@ public class EventManager {
                     PacketEvents.getAPI().getLogger().log(Level.WARNING, "PacketEvents caught an unhandled exception while calling your listener.", t);
                 }
             }
+            if (measuredEvent != null) {
+                this.metrics.recordListener(measuredEvent.getConnectionState(), measuredEvent.getPacketType(),
+                        listener, System.nanoTime() - start);
+            }
             if (postCallListenerAction != null) {
                 postCallListenerAction.run();
             }
         }
-        // For performance reasons, we don't want to re-encode the packet if it's not needed.
-        if (event instanceof ProtocolPacketEvent && !((ProtocolPacketEvent) event).needsReEncode()) {
-            ((ProtocolPacketEvent) event).setLastUsedWrapper(null);
+        if (event instanceof ProtocolPacketEvent) {
+            ProtocolPacketEvent packetEvent = (ProtocolPacketEvent) event;
+            PacketWrapper<?> wrapper = packetEvent.getLastUsedWrapper();
+            if (wrapper != null) {
+                // the buffer is either cleared to re-encode the packet or handed on from now on
+                wrapper.releaseReadBuffer(packetEvent.needsReEncode());
+                // For performance reasons, we don't want to re-encode the packet if it's not needed.
+                if (!packetEvent.needsReEncode()) {
+                    packetEvent.setLastUsedWrapper(null);
+                }
+            }
         }
     }
 
+    /**
+     * Gets the metrics of the packets processed by packetevents and the time spent in the listeners.
+     *
+     * @return The packet metrics, disabled by default
+     */
+    public PacketMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Checks whether any registered listener is interested in the given packet type.
+     *
+     * @param state      The connection state the packet is sent in
+     * @param packetType The packet type
+     * @return Whether calling an event for this packet type would reach at least one listener
+     */
+    public boolean hasListeners(ConnectionState state, PacketTypeCommon packetType) {
+        PacketListenerCommon[] typeListeners = this.getListeners(state, packetType);
+        return typeListeners == null ? this.listeners.length != 0 : typeListeners.length != 0;
+    }
+
+    /**
+     * Checks whether any registered listener is interested in the packet with the given id,
+     * without resolving its packet type.
+     * Packet ids which can't be mapped to a packet type are always considered to be listened to,
+     * so they are processed (and rejected) like before.
+     *
+     * @param side     The side which sent the packet
+     * @param state    The connection state the packet is sent in
+     * @param version  The version used to map the packet id
+     * @param packetId The packet id
+     * @return Whether an event needs to be created for this packet
+     */
+    public boolean hasListeners(PacketSide side, ConnectionState state, ClientVersion version, int packetId) {
+        long[] packetIds = this.listenedPacketIds[tableIndex(state, side)][version.ordinal()];
+        int index = packetId >>> 6;
+        return index >= packetIds.length || (packetIds[index] & (1L << packetId)) != 0L;
+    }
+
     /**
      * Register the dynamic packet event listener.
      *
@@ -153,6 +236,8 @@ public class EventManager {
         this.listenersMap.clear();
         synchronized (this) {//like booky10 said, the synchronization is necessary here
             this.listeners = new PacketListenerCommon[0];
+            this.packetTypeListeners = createPacketTypeListeners(this.listeners);
+            this.listenedPacketIds = createListenedPacketIds(this.packetTypeListeners);
         }
     }
 
@@ -166,7 +251,11 @@ public class EventManager {
                 Set<PacketListenerCommon> set = this.listenersMap.get(priority);
                 if (set != null) list.addAll(set);
             }
-            this.listeners = list.toArray(new PacketListenerCommon[0]);
+            PacketListenerCommon[] listeners = list.toArray(new PacketListenerCommon[0]);
+            PacketListenerCommon[][][] packetTypeListeners = createPacketTypeListeners(listeners);
+            this.listenedPacketIds = createListenedPacketIds(packetTypeListeners);
+            this.packetTypeListeners = packetTypeListeners;
+            this.listeners = listeners;
         }
     }
 
@@ -182,4 +271,95 @@ public class EventManager {
         Set<PacketListenerCommon> listenerSet = this.listenersMap.get(listener.getPriority());
         return listenerSet != null && listenerSet.remove(listener);
     }
+
+    private PacketListenerCommon[] getListeners(PacketEvent event) {
+        if (event instanceof ProtocolPacketEvent) {
+            ProtocolPacketEvent packetEvent = (ProtocolPacketEvent) event;
+            PacketListenerCommon[] typeListeners = this.getListeners(packetEvent.getConnectionState(), packetEvent.getPacketType());
+            if (typeListeners != null) {
+                return typeListeners;
+            }
+        }
+        return this.listeners;
+    }
+
+    //Returns null if the packet type isn't part of the precomputed tables, for example if the
+    //connection state doesn't match the packet type; all listeners should be called in that case
+    private PacketListenerCommon @Nullable [] getListeners(@Nullable ConnectionState state, @Nullable PacketTypeCommon packetType) {
+        if (state == null || !(packetType instanceof Enum<?>)) {
+            return null;
+        }
+        int group = tableIndex(state, packetType.getSide());
+        int ordinal = ((Enum<?>) packetType).ordinal();
+        PacketTypeCommon[] types = PACKET_TYPES[group];
+        //The tables are indexed by ordinal, so make sure the constant actually belongs to this state and side
+        if (ordinal >= types.length || types[ordinal] != packetType) {
+            return null;
+        }
+        return this.packetTypeListeners[group][ordinal];
+    }
+
+    private static int tableIndex(ConnectionState state, PacketSide side) {
+        return state.ordinal() * PACKET_SIDES.length + side.ordinal();
+    }
+
+    private static PacketListenerCommon[][][] createPacketTypeListeners(PacketListenerCommon[] listeners) {
+        PacketListenerCommon[][][] tables = new PacketListenerCommon[PACKET_TYPES.length][][];
+        List<PacketListenerCommon> list = new ArrayList<>();
+        for (ConnectionState state : CONNECTION_STATES) {
+            for (PacketSide side : PACKET_SIDES) {
+                int group = tableIndex(state, side);
+                PacketTypeCommon[] types = PACKET_TYPES[group];
+                PacketListenerCommon[][] table = new PacketListenerCommon[types.length][];
+                for (int i = 0; i < types.length; i++) {
+                    //keeps the order of the given listeners, so from LOWEST to MONITOR
+                    for (PacketListenerCommon listener : listeners) {
+                        if (listener.isListeningTo(state, types[i])) {
+                            list.add(listener);
+                        }
+                    }
+                    table[i] = list.toArray(new PacketListenerCommon[0]);
+                    list.clear();
+                }
+                tables[group] = table;
+            }
+        }
+        return tables;
+    }
+
+    private static long[][][] createListenedPacketIds(PacketListenerCommon[][][] tables) {
+        long[][][] packetIds = new long[tables.length][CLIENT_VERSIONS.length][];
+        for (int group = 0; group < tables.length; group++) {
+            for (ClientVersion version : CLIENT_VERSIONS) {
+                packetIds[group][version.ordinal()] = createListenedPacketIds(tables[group], PACKET_TYPES[group], version);
+            }
+        }
+        return packetIds;
+    }
+
+    private static long[] createListenedPacketIds(PacketListenerCommon[][] table, PacketTypeCommon[] types, ClientVersion version) {
+        int[] ids = new int[types.length];
+        int maxId = -1;
+        for (int i = 0; i < types.length; i++) {
+            ids[i] = types[i].getId(version);
+            maxId = Math.max(maxId, ids[i]);
+        }
+        long[] knownIds = new long[(maxId >> 6) + 1];
+        long[] listenedIds = new long[knownIds.length];
+        for (int i = 0; i < ids.length; i++) {
+            int id = ids[i];
+            if (id < 0) {
+                continue; //packet type doesn't exist in this version
+            }
+            knownIds[id >>> 6] |= 1L << id;
+            if (table[i].length != 0) {
+                listenedIds[id >>> 6] |= 1L << id;
+            }
+        }
+        //Unknown packet ids are always processed, so they fail the same way as before
+        for (int i = 0; i < listenedIds.length; i++) {
+            listenedIds[i] |= ~knownIds[i];
+        }
+        return listenedIds;
+    }
 }
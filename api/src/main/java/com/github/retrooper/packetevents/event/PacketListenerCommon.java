@@ -18,9 +18,17 @@
 
 package com.github.retrooper.packetevents.event;
 
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.Nullable;
+
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Abstract packet listener.
@@ -30,19 +38,60 @@ import java.util.Map;
  */
 public abstract class PacketListenerCommon {
     private final PacketListenerPriority priority;
+    //null if this listener is interested in all packet types
+    private final @Nullable Set<PacketTypeCommon> packetTypes;
 
     public PacketListenerCommon(PacketListenerPriority priority) {
         this.priority = priority;
+        this.packetTypes = null;
+    }
+
+    /**
+     * Creates a listener which will only be called for the given packet types.
+     * Packets of any other type skip this listener entirely.
+     *
+     * @param priority    {@link PacketListenerPriority}
+     * @param packetTypes The packet types this listener is interested in
+     */
+    public PacketListenerCommon(PacketListenerPriority priority, PacketTypeCommon... packetTypes) {
+        this.priority = priority;
+        this.packetTypes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(packetTypes)));
     }
 
     public PacketListenerCommon() {
         this.priority = PacketListenerPriority.NORMAL;
+        this.packetTypes = null;
     }
 
     public PacketListenerPriority getPriority() {
         return priority;
     }
 
+    /**
+     * Gets the packet types this listener has declared interest in.
+     *
+     * @return The packet types, or null if this listener is interested in all packet types
+     */
+    public @Nullable Set<PacketTypeCommon> getPacketTypes() {
+        return packetTypes;
+    }
+
+    /**
+     * Checks whether this listener wants to process packets of the given type
+     * in the given connection state.
+     * Override this to filter by side or connection state.
+     *
+     * @apiNote The {@link EventManager} caches the result of this method when listeners are registered,
+     * so the result must not change while this listener is registered.
+     *
+     * @param state      The connection state the packet is sent in
+     * @param packetType The packet type
+     * @return Whether this listener should be called for this packet type
+     */
+    public boolean isListeningTo(ConnectionState state, PacketTypeCommon packetType) {
+        return packetTypes == null || packetTypes.contains(packetType);
+    }
+
     public void onUserConnect(UserConnectEvent event) {
     }
 
@@ -24,6 +24,7 @@ import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.User;
+import org.jetbrains.annotations.ApiStatus;
 
 public class PacketReceiveEvent extends ProtocolPacketEvent {
     protected PacketReceiveEvent(Object channel, User user, Object player, Object rawByteBuf,
@@ -39,6 +40,12 @@ public class PacketReceiveEvent extends ProtocolPacketEvent {
                 channel, user, player, byteBuf);
     }
 
+    @ApiStatus.Internal
+    public void reload(Object channel, User user, Object player, Object rawByteBuf,
+                       boolean autoProtocolTranslation) throws PacketProcessException {
+        this.reload(PacketSide.CLIENT, channel, user, player, rawByteBuf, autoProtocolTranslation);
+    }
+
     @Override
     public void call(PacketListenerCommon listener) {
         listener.onPacketReceive(this);
@@ -25,6 +25,7 @@ import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.User;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -46,6 +47,13 @@ public class PacketSendEvent extends ProtocolPacketEvent {
                 channel, user, player, byteBuf);
     }
 
+    @ApiStatus.Internal
+    public void reload(Object channel, User user, Object player, Object rawByteBuf,
+                       boolean autoProtocolTranslation) throws PacketProcessException {
+        this.tasksAfterSend = null;
+        this.reload(PacketSide.SERVER, channel, user, player, rawByteBuf, autoProtocolTranslation);
+    }
+
     @Override
     public void call(PacketListenerCommon listener) {
         listener.onPacketSend(this);
@@ -42,23 +42,32 @@ import java.util.ArrayList;
 import java.util.List;
 
 public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerEvent, CancellableEvent, UserEvent {
-    private final Object channel;
-    private final ConnectionState connectionState;
-    private final User user;
+    private Object channel;
+    private ConnectionState connectionState;
+    private User user;
     private Object player;
     private Object byteBuf;
-    private final int packetID;
-    private final PacketTypeCommon packetType;
+    private int packetID;
+    private PacketTypeCommon packetType;
     private ServerVersion serverVersion;
     private boolean cancel;
     private PacketWrapper<?> lastUsedWrapper;
     private List<Runnable> postTasks = null;
     private boolean cloned;
     private boolean needsReEncode = PacketEvents.getAPI().getSettings().reEncodeByDefault();
+    // reader index right after the packet id, restored after every listener
+    private int payloadReaderIndex;
+    private Runnable readerIndexRestorer;
 
     public ProtocolPacketEvent(PacketSide packetSide, Object channel,
                                User user, Object player, Object byteBuf,
                                boolean autoProtocolTranslation) throws PacketProcessException {
+        this.load(packetSide, channel, user, player, byteBuf, autoProtocolTranslation);
+    }
+
+    private void load(PacketSide packetSide, Object channel,
+                      User user, Object player, Object byteBuf,
+                      boolean autoProtocolTranslation) throws PacketProcessException {
         this.channel = channel;
         this.user = user;
         this.player = player;
@@ -79,6 +88,7 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
         } catch (Exception e) {
             throw new PacketProcessException("Failed to read the Packet ID of a packet. (Size: " + size + ")");
         }
+        this.payloadReaderIndex = ByteBufHelper.readerIndex(byteBuf);
         ClientVersion version = serverVersion.toClientVersion();
         ConnectionState state = packetSide == PacketSide.CLIENT ? user.getDecoderState() : user.getEncoderState();
         this.packetType = PacketType.getById(packetSide, state,
@@ -93,6 +103,21 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
         this.connectionState = state;
     }
 
+    /**
+     * Resets this event and loads the next packet of the user into it, as if it was newly created.
+     */
+    @ApiStatus.Internal
+    protected void reload(PacketSide packetSide, Object channel,
+                          User user, Object player, Object byteBuf,
+                          boolean autoProtocolTranslation) throws PacketProcessException {
+        this.resetTimestamp();
+        this.cancel = false;
+        this.lastUsedWrapper = null;
+        this.postTasks = null;
+        this.needsReEncode = PacketEvents.getAPI().getSettings().reEncodeByDefault();
+        this.load(packetSide, channel, user, player, byteBuf, autoProtocolTranslation);
+    }
+
     public ProtocolPacketEvent(int packetID, PacketTypeCommon packetType, ServerVersion serverVersion, Object channel,
                                User user, Object player, Object byteBuf) {
         this.channel = channel;
@@ -230,6 +255,18 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
         return postTasks != null && !postTasks.isEmpty();
     }
 
+    /**
+     * Restores the reader index of the buffer to the start of the packet payload.
+     * Run after every listener, so each listener can read the packet from the start.
+     */
+    @ApiStatus.Internal
+    public Runnable getReaderIndexRestorer() {
+        if (this.readerIndexRestorer == null) {
+            this.readerIndexRestorer = () -> ByteBufHelper.readerIndex(this.byteBuf, this.payloadReaderIndex);
+        }
+        return this.readerIndexRestorer;
+    }
+
     @Override
     public ProtocolPacketEvent clone() {
         return this instanceof PacketReceiveEvent ? ((PacketReceiveEvent) this).clone()
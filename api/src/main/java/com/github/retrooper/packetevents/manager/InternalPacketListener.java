@@ -47,7 +47,19 @@ public class InternalPacketListener extends PacketListenerAbstract {
     }
 
     public InternalPacketListener(PacketListenerPriority priority) {
-        super(priority);
+        // only listen to the packets which are needed for tracking the connection,
+        // so all other packets can skip this listener
+        super(priority,
+                PacketType.Handshaking.Client.HANDSHAKE,
+                PacketType.Login.Server.LOGIN_SUCCESS,
+                PacketType.Login.Client.LOGIN_SUCCESS_ACK,
+                PacketType.Configuration.Server.REGISTRY_DATA,
+                PacketType.Configuration.Server.CONFIGURATION_END,
+                PacketType.Configuration.Client.CONFIGURATION_END_ACK,
+                PacketType.Play.Server.JOIN_GAME,
+                PacketType.Play.Server.RESPAWN,
+                PacketType.Play.Server.CONFIGURATION_START,
+                PacketType.Play.Client.CONFIGURATION_ACK);
     }
 
     @Override
@@ -0,0 +1,281 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.manager.metrics;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketListenerCommon;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Counts processed packets, their bytes and the time spent in listeners, per packet type and per listener class.
+ * Disabled by default; while disabled, recording costs a single volatile read.
+ * Recording never allocates once the counters of a listener class exist.
+ */
+public class PacketMetrics implements PacketMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.github.retrooper.packetevents:type=PacketMetrics";
+
+    private static final ConnectionState[] CONNECTION_STATES = ConnectionState.values();
+    private static final PacketSide[] PACKET_SIDES = PacketSide.values();
+    //All packet type constants, indexed by [state * sides + side][packet type ordinal]
+    private static final PacketTypeCommon[][] PACKET_TYPES = new PacketTypeCommon[CONNECTION_STATES.length * PACKET_SIDES.length][];
+    //Offset of each [state * sides + side] group in the flat counter arrays
+    private static final int[] OFFSETS = new int[PACKET_TYPES.length];
+    private static final int PACKET_TYPE_COUNT;
+
+    static {
+        int count = 0;
+        for (ConnectionState state : CONNECTION_STATES) {
+            for (PacketSide side : PACKET_SIDES) {
+                int group = tableIndex(state, side);
+                PACKET_TYPES[group] = PacketType.values(side, state);
+                OFFSETS[group] = count;
+                count += PACKET_TYPES[group].length;
+            }
+        }
+        PACKET_TYPE_COUNT = count;
+    }
+
+    private final LongAdder[] packetCounts = createCounters(PACKET_TYPE_COUNT);
+    private final LongAdder[] packetBytes = createCounters(PACKET_TYPE_COUNT);
+    private final LongAdder[] packetListenerNanos = createCounters(PACKET_TYPE_COUNT);
+    //Weakly keyed, so the counters don't keep the classes of unloaded plugins alive
+    private final Map<Class<?>, ListenerCounters> listenerCounters = Collections.synchronizedMap(new WeakHashMap<>());
+    private final ClassValue<ListenerCounters> listenerCountersByClass = new ClassValue<ListenerCounters>() {
+        @Override
+        protected ListenerCounters computeValue(Class<?> type) {
+            return listenerCounters.computeIfAbsent(type, k -> new ListenerCounters());
+        }
+    };
+
+    private volatile boolean enabled;
+    private boolean registeredMBean;
+    private @Nullable ObjectName mBeanName;
+
+    private static LongAdder[] createCounters(int length) {
+        LongAdder[] counters = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private static int tableIndex(ConnectionState state, PacketSide side) {
+        return state.ordinal() * PACKET_SIDES.length + side.ordinal();
+    }
+
+    //Returns -1 if the packet type doesn't belong to the given connection state
+    private static int indexOf(@Nullable ConnectionState state, @Nullable PacketTypeCommon packetType) {
+        if (state == null || !(packetType instanceof Enum<?>)) {
+            return -1;
+        }
+        int group = tableIndex(state, packetType.getSide());
+        int ordinal = ((Enum<?>) packetType).ordinal();
+        PacketTypeCommon[] types = PACKET_TYPES[group];
+        if (ordinal >= types.length || types[ordinal] != packetType) {
+            return -1;
+        }
+        return OFFSETS[group] + ordinal;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Enables or disables recording. The first time the metrics get enabled,
+     * they are registered with the platform MBean server.
+     */
+    @Override
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled && !this.registeredMBean) {
+            this.registeredMBean = true;
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(OBJECT_NAME);
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(this, name);
+                    this.mBeanName = name;
+                }
+            } catch (Exception exception) {
+                PacketEvents.getAPI().getLogger().log(Level.WARNING, "Failed to register the packet metrics MBean", exception);
+            }
+        }
+    }
+
+    /**
+     * Disables recording and unregisters these metrics from the platform MBean server,
+     * called when packetevents terminates.
+     */
+    @ApiStatus.Internal
+    public synchronized void unregisterMBean() {
+        this.enabled = false;
+        this.registeredMBean = false;
+        ObjectName name = this.mBeanName;
+        if (name == null) {
+            return;
+        }
+        this.mBeanName = null;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (Exception exception) {
+            PacketEvents.getAPI().getLogger().log(Level.WARNING, "Failed to unregister the packet metrics MBean", exception);
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < PACKET_TYPE_COUNT; i++) {
+            this.packetCounts[i].reset();
+            this.packetBytes[i].reset();
+            this.packetListenerNanos[i].reset();
+        }
+        synchronized (this.listenerCounters) {
+            for (ListenerCounters counters : this.listenerCounters.values()) {
+                counters.calls.reset();
+                counters.nanos.reset();
+            }
+        }
+    }
+
+    @ApiStatus.Internal
+    public void recordPacket(@Nullable ConnectionState state, @Nullable PacketTypeCommon packetType, int bytes) {
+        int index = indexOf(state, packetType);
+        if (index != -1) {
+            this.packetCounts[index].increment();
+            this.packetBytes[index].add(bytes);
+        }
+    }
+
+    @ApiStatus.Internal
+    public void recordListener(@Nullable ConnectionState state, @Nullable PacketTypeCommon packetType,
+                               PacketListenerCommon listener, long nanos) {
+        int index = indexOf(state, packetType);
+        if (index != -1) {
+            this.packetListenerNanos[index].add(nanos);
+        }
+        ListenerCounters counters = this.listenerCountersByClass.get(listener.getClass());
+        counters.calls.increment();
+        counters.nanos.add(nanos);
+    }
+
+    public long getPacketCount(ConnectionState state, PacketTypeCommon packetType) {
+        return sum(this.packetCounts, state, packetType);
+    }
+
+    public long getPacketBytes(ConnectionState state, PacketTypeCommon packetType) {
+        return sum(this.packetBytes, state, packetType);
+    }
+
+    public long getPacketListenerNanos(ConnectionState state, PacketTypeCommon packetType) {
+        return sum(this.packetListenerNanos, state, packetType);
+    }
+
+    public long getListenerCalls(Class<? extends PacketListenerCommon> listenerClass) {
+        ListenerCounters counters = this.listenerCounters.get(listenerClass);
+        return counters == null ? 0L : counters.calls.sum();
+    }
+
+    public long getListenerNanos(Class<? extends PacketListenerCommon> listenerClass) {
+        ListenerCounters counters = this.listenerCounters.get(listenerClass);
+        return counters == null ? 0L : counters.nanos.sum();
+    }
+
+    private static long sum(LongAdder[] counters, ConnectionState state, PacketTypeCommon packetType) {
+        int index = indexOf(state, packetType);
+        return index == -1 ? 0L : counters[index].sum();
+    }
+
+    @Override
+    public Map<String, Long> getPacketCounts() {
+        return snapshot(this.packetCounts);
+    }
+
+    @Override
+    public Map<String, Long> getPacketBytes() {
+        return snapshot(this.packetBytes);
+    }
+
+    @Override
+    public Map<String, Long> getPacketListenerNanos() {
+        return snapshot(this.packetListenerNanos);
+    }
+
+    @Override
+    public Map<String, Long> getListenerCalls() {
+        return this.snapshotListeners(counters -> counters.calls);
+    }
+
+    @Override
+    public Map<String, Long> getListenerNanos() {
+        return this.snapshotListeners(counters -> counters.nanos);
+    }
+
+    //Only contains the packet types which have been recorded
+    private static Map<String, Long> snapshot(LongAdder[] counters) {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (ConnectionState state : CONNECTION_STATES) {
+            for (PacketSide side : PACKET_SIDES) {
+                int group = tableIndex(state, side);
+                PacketTypeCommon[] types = PACKET_TYPES[group];
+                for (int i = 0; i < types.length; i++) {
+                    long value = counters[OFFSETS[group] + i].sum();
+                    if (value != 0L) {
+                        snapshot.put(state.name() + '/' + side.name() + '/' + types[i].getName(), value);
+                    }
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private Map<String, Long> snapshotListeners(Function<ListenerCounters, LongAdder> counter) {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        synchronized (this.listenerCounters) {
+            for (Map.Entry<Class<?>, ListenerCounters> entry : this.listenerCounters.entrySet()) {
+                snapshot.put(entry.getKey().getName(), counter.apply(entry.getValue()).sum());
+            }
+        }
+        return snapshot;
+    }
+
+    private static final class ListenerCounters {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
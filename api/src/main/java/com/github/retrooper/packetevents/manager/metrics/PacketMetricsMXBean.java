@@ -0,0 +1,45 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.manager.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link PacketMetrics}, registered as {@link PacketMetrics#OBJECT_NAME}
+ * once the metrics get enabled.
+ * Packet types are keyed by "STATE/SIDE/NAME", listeners by their class name.
+ */
+public interface PacketMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    void reset();
+
+    Map<String, Long> getPacketCounts();
+
+    Map<String, Long> getPacketBytes();
+
+    Map<String, Long> getPacketListenerNanos();
+
+    Map<String, Long> getListenerCalls();
+
+    Map<String, Long> getListenerNanos();
+}
@@ -19,15 +19,22 @@
 package com.github.retrooper.packetevents.manager.protocol;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.ProtocolVersion;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import com.github.retrooper.packetevents.util.PacketTransformationUtil;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.ApiStatus;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -147,6 +154,76 @@ public interface ProtocolManager {
         receivePacketsSilently(channel, transformed);
     }
 
+    /**
+     * Sends the packet to all given users.
+     * Unlike calling {@link #sendPacket(Object, PacketWrapper)} for each user, the wrapper is only
+     * encoded once for each group of users which receive the same bytes. On servers this is a single group,
+     * on proxies users are grouped by their client version and encoder state.
+     *
+     * @param users   The users to send the packet to
+     * @param wrapper The packet
+     */
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper) {
+        broadcastPacket(users, wrapper, false);
+    }
+
+    /**
+     * Sends the packet to all given users, without it being processed by any packet listeners.
+     * The wrapper is only encoded once for each group of users which receive the same bytes.
+     *
+     * @param users   The users to send the packet to
+     * @param wrapper The packet
+     * @see #broadcastPacket(Collection, PacketWrapper)
+     */
+    default void broadcastPacketSilently(Collection<User> users, PacketWrapper<?> wrapper) {
+        broadcastPacket(users, wrapper, true);
+    }
+
+    @ApiStatus.Internal
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper, boolean silently) {
+        boolean proxy = PacketEvents.getAPI().getInjector().isProxy();
+        int states = ConnectionState.values().length;
+        Map<Integer, List<User>> groups = new HashMap<>();
+        for (User user : users) {
+            int key = 0;
+            if (proxy) {
+                // proxies rewrite the packet id and the content for the version and encoder state of each user,
+                // the decoder state may already differ while switching states
+                ClientVersion version = user.getClientVersion();
+                key = (version == null ? -1 : version.ordinal()) * states + user.getEncoderState().ordinal();
+            }
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(user);
+        }
+
+        for (List<User> group : groups.values()) {
+            Object[] buffers = transformWrappers(wrapper, group.get(0).getChannel(), true);
+            try {
+                for (User user : group) {
+                    for (Object buffer : buffers) {
+                        Object userBuffer;
+                        if (silently || !PacketEventsImplHelper.isPacketListened(user, buffer, !proxy, PacketSide.SERVER)) {
+                            // the buffer reaches the channel untouched, so all users can share its content
+                            userBuffer = ByteBufHelper.retainedDuplicate(buffer);
+                        } else {
+                            // listeners may re-encode the packet in place, every user needs their own content
+                            userBuffer = ByteBufHelper.copy(buffer);
+                        }
+                        // sending takes ownership of the buffer, it is released by the platform even on failure
+                        if (silently) {
+                            sendPacketSilently(user.getChannel(), userBuffer);
+                        } else {
+                            sendPacket(user.getChannel(), userBuffer);
+                        }
+                    }
+                }
+            } finally {
+                for (Object buffer : buffers) {
+                    ByteBufHelper.release(buffer);
+                }
+            }
+        }
+    }
+
     default User getUser(Object channel) {
         Object pipeline = ChannelHelper.getPipeline(channel);
         return USERS.get(pipeline);
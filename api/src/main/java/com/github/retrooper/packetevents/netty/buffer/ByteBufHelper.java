@@ -159,6 +159,18 @@ public class ByteBufHelper {
         return PacketEvents.getAPI().getNettyManager().getByteBufOperator().getUnsignedByte(buffer, index);
     }
 
+    public static void setByte(Object buffer, int index, int value) {
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().setByte(buffer, index, value);
+    }
+
+    public static int getInt(Object buffer, int index) {
+        return PacketEvents.getAPI().getNettyManager().getByteBufOperator().getInt(buffer, index);
+    }
+
+    public static void setInt(Object buffer, int index, int value) {
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().setInt(buffer, index, value);
+    }
+
     public static boolean isReadable(Object buffer) {
         return PacketEvents.getAPI().getNettyManager().getByteBufOperator().isReadable(buffer);
     }
@@ -257,18 +269,27 @@ public class ByteBufHelper {
     }
 
     public static int readVarInt(Object buffer) {
+        return PacketEvents.getAPI().getNettyManager().getByteBufOperator().readVarInt(buffer);
+    }
+
+    /**
+     * Reads a VarInt at the current reader index without modifying the reader index.
+     *
+     * @param buffer The buffer
+     * @return The VarInt, or -1 if the buffer doesn't contain a complete VarInt of at most 5 bytes
+     */
+    public static int peekVarInt(Object buffer) {
+        int readerIndex = readerIndex(buffer);
+        int maxLength = Math.min(5, writerIndex(buffer) - readerIndex);
         int value = 0;
-        int length = 0;
-        byte currentByte;
-        do {
-            currentByte = readByte(buffer);
-            value |= (currentByte & 0x7F) << (length * 7);
-            length++;
-            if (length > 5) {
-                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+        for (int i = 0; i < maxLength; i++) {
+            short currentByte = getUnsignedByte(buffer, readerIndex + i);
+            value |= (currentByte & 0x7F) << (i * 7);
+            if ((currentByte & 0x80) != 0x80) {
+                return value;
             }
-        } while ((currentByte & 0x80) == 0x80);
-        return value;
+        }
+        return -1;
     }
 
     public static void writeVarInt(Object buffer, int value) {
@@ -111,6 +111,40 @@ public interface ByteBufOperator {
         return (short) (this.readByte(buffer) & 255);
     }
 
+    //Implementations bound to a buffer type should read multiple bytes at once
+    default int readVarInt(Object buffer) {
+        int value = 0;
+        int length = 0;
+        byte currentByte;
+        do {
+            currentByte = readByte(buffer);
+            value |= (currentByte & 0x7F) << (length * 7);
+            length++;
+            if (length > 5) {
+                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+            }
+        } while ((currentByte & 0x80) == 0x80);
+        return value;
+    }
+
+    //Absolute access, doesn't move the reader or writer index
+    //Not abstract to keep operators of other platforms working, which don't support patching buffers then
+    default void setByte(Object buffer, int index, int value) {
+        throw new UnsupportedOperationException("Setting bytes isn't supported by " + getClass().getName());
+    }
+
+    default int getInt(Object buffer, int index) {
+        return getUnsignedByte(buffer, index) << 24 | getUnsignedByte(buffer, index + 1) << 16
+                | getUnsignedByte(buffer, index + 2) << 8 | getUnsignedByte(buffer, index + 3);
+    }
+
+    default void setInt(Object buffer, int index, int value) {
+        setByte(buffer, index, value >>> 24);
+        setByte(buffer, index + 1, value >>> 16);
+        setByte(buffer, index + 2, value >>> 8);
+        setByte(buffer, index + 3, value);
+    }
+
     default boolean readBoolean(Object buffer) {
         return readByte(buffer) != 0;
     }
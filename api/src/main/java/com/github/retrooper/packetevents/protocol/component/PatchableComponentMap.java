@@ -31,38 +31,52 @@ public class PatchableComponentMap implements IComponentMap {
     public static final PatchableComponentMap EMPTY = new PatchableComponentMap(
             Collections.emptyMap(), Collections.emptyMap());
 
+    // shared with the static component map this has been created from, never modified
     private final Map<ComponentType<?>, ?> base;
-    private final Map<ComponentType<?>, Optional<?>> patches;
+    // allocated on first modification, most item stacks don't have any patches
+    private @Nullable Map<ComponentType<?>, Optional<?>> patches;
 
     public PatchableComponentMap(StaticComponentMap base) {
-        this(base.getDelegate(), new HashMap<>());
+        this.base = base.getDelegate();
     }
 
     public PatchableComponentMap(Map<ComponentType<?>, ?> base) {
-        this(base, new HashMap<>());
+        this(base, null);
     }
 
     public PatchableComponentMap(
             StaticComponentMap base,
             Map<ComponentType<?>, Optional<?>> patches
     ) {
-        this(base.getDelegate(), patches);
+        this.base = base.getDelegate();
+        this.patches = patches;
     }
 
     public PatchableComponentMap(
             Map<ComponentType<?>, ?> base,
-            Map<ComponentType<?>, Optional<?>> patches
+            @Nullable Map<ComponentType<?>, Optional<?>> patches
+    ) {
+        this.base = base.isEmpty() ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new HashMap<>(base));
+        this.patches = patches;
+    }
+
+    private PatchableComponentMap(
+            PatchableComponentMap map,
+            @Nullable Map<ComponentType<?>, Optional<?>> patches
     ) {
-        this.base = Collections.unmodifiableMap(new HashMap<>(base));
+        this.base = map.base;
         this.patches = patches;
     }
 
     @SuppressWarnings("unchecked") // no
     @Override
     public <T> @Nullable T get(ComponentType<T> type) {
-        Optional<?> patched = this.patches.get(type);
-        if (patched != null) {
-            return (T) patched.orElse(null);
+        if (this.patches != null) {
+            Optional<?> patched = this.patches.get(type);
+            if (patched != null) {
+                return (T) patched.orElse(null);
+            }
         }
         return (T) this.base.get(type);
     }
@@ -72,20 +86,31 @@ public class PatchableComponentMap implements IComponentMap {
         Object baseVal = this.base.get(type);
         T newVal = value.orElse(null);
         if (Objects.equals(baseVal, newVal)) {
-            this.patches.remove(type); // fallback to base
+            if (this.patches != null) {
+                this.patches.remove(type); // fallback to base
+            }
         } else {
-            this.patches.put(type, value);
+            this.getPatches().put(type, value);
         }
     }
 
     @Override
     public boolean has(ComponentType<?> type) {
-        Optional<?> patched = this.patches.get(type);
+        Optional<?> patched = this.patches != null ? this.patches.get(type) : null;
         return patched != null ? patched.isPresent() : this.base.containsKey(type);
     }
 
     public PatchableComponentMap copy() {
-        return new PatchableComponentMap(this.base, new HashMap<>(this.patches));
+        return new PatchableComponentMap(this,
+                this.hasPatches() ? new HashMap<>(this.patches) : null);
+    }
+
+    private Map<ComponentType<?>, Optional<?>> getPatchesOrEmpty() {
+        return this.patches != null ? this.patches : Collections.emptyMap();
+    }
+
+    public boolean hasPatches() {
+        return this.patches != null && !this.patches.isEmpty();
     }
 
     public Map<ComponentType<?>, ?> getBase() {
@@ -93,6 +118,9 @@ public class PatchableComponentMap implements IComponentMap {
     }
 
     public Map<ComponentType<?>, Optional<?>> getPatches() {
+        if (this.patches == null) {
+            this.patches = new HashMap<>(4);
+        }
         return this.patches;
     }
 
@@ -102,16 +130,16 @@ public class PatchableComponentMap implements IComponentMap {
         if (!(obj instanceof PatchableComponentMap)) return false;
         PatchableComponentMap that = (PatchableComponentMap) obj;
         if (!this.base.equals(that.base)) return false;
-        return this.patches.equals(that.patches);
+        return this.getPatchesOrEmpty().equals(that.getPatchesOrEmpty());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.base, this.patches);
+        return Objects.hash(this.base, this.getPatchesOrEmpty());
     }
 
     @Override
     public String toString() {
-        return "PatchableComponentMap{base=" + this.base + ", patches=" + this.patches + '}';
+        return "PatchableComponentMap{base=" + this.base + ", patches=" + this.getPatchesOrEmpty() + '}';
     }
 }
@@ -0,0 +1,297 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.entity.data;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Indexed view of the entity metadata in an encoded entity metadata packet.
+ * <p>
+ * Creating the view only records the type and buffer offset of each entry, byte, boolean, float and int
+ * values are never boxed. Setters patch the encoded value in the buffer, so the packet is sent without
+ * being re-encoded. This is a lot cheaper than using {@link
+ * com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata} to change a single flag.
+ * <p>
+ * Patches are lost if another listener of the same event uses a packet wrapper, as the packet is re-encoded
+ * from that wrapper afterward.
+ */
+public final class EntityMetadataView {
+
+    private static final int LEGACY_END = Byte.MAX_VALUE;
+    private static final int END = 0xFF;
+
+    private final Object buffer;
+    private final ByteBufOperator operator;
+    private final ServerVersion serverVersion;
+    private final int entityId;
+
+    private int[] indexes = new int[8];
+    private EntityDataType<?>[] types = new EntityDataType[8];
+    // absolute buffer offsets of the encoded values
+    private int[] offsets = new int[8];
+    private int size;
+
+    private EntityMetadataView(Object buffer, ServerVersion serverVersion) {
+        this.buffer = buffer;
+        this.operator = PacketEvents.getAPI().getNettyManager().getByteBufOperator();
+        this.serverVersion = serverVersion;
+
+        int readerIndex = this.operator.readerIndex(buffer);
+        try {
+            PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(buffer, serverVersion);
+            this.entityId = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)
+                    ? wrapper.readVarInt() : wrapper.readInt();
+            this.scan(wrapper);
+        } finally {
+            this.operator.readerIndex(buffer, readerIndex);
+        }
+    }
+
+    /**
+     * Creates a view of the entity metadata packet of this event, without marking the packet for re-encoding.
+     *
+     * @throws IllegalArgumentException if the event is not an entity metadata packet
+     */
+    public static EntityMetadataView of(PacketSendEvent event) {
+        if (event.getPacketType() != PacketType.Play.Server.ENTITY_METADATA) {
+            throw new IllegalArgumentException("Expected an entity metadata packet, got " + event.getPacketType());
+        }
+        return new EntityMetadataView(event.getByteBuf(), event.getServerVersion());
+    }
+
+    /**
+     * Creates a view of an encoded entity metadata packet, the reader index of the buffer has to point to
+     * the entity id. The reader index is not moved.
+     */
+    public static EntityMetadataView of(Object buffer, ServerVersion serverVersion) {
+        return new EntityMetadataView(buffer, serverVersion);
+    }
+
+    private void scan(PacketWrapper<?> wrapper) {
+        ClientVersion version = this.serverVersion.toClientVersion();
+        boolean modern = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9);
+        boolean v1_10 = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_10);
+        while (true) {
+            int index;
+            int typeId;
+            if (modern) {
+                index = wrapper.readUnsignedByte();
+                if (index == END) {
+                    break;
+                }
+                typeId = v1_10 ? wrapper.readVarInt() : wrapper.readUnsignedByte();
+            } else {
+                int data = wrapper.readUnsignedByte();
+                if (data == LEGACY_END) {
+                    break;
+                }
+                typeId = (data & 0xE0) >> 5;
+                index = data & 0x1F;
+            }
+            EntityDataType<?> type = EntityDataTypes.getById(version, typeId);
+            if (type == null) {
+                throw new IllegalStateException("Unknown entity metadata type id: " + typeId + " version " + version);
+            }
+            this.add(index, type, this.operator.readerIndex(this.buffer));
+            this.skipValue(wrapper, type);
+        }
+    }
+
+    private void skipValue(PacketWrapper<?> wrapper, EntityDataType<?> type) {
+        if (type == EntityDataTypes.BYTE || type == EntityDataTypes.BOOLEAN) {
+            this.operator.skipBytes(this.buffer, 1);
+        } else if (type == EntityDataTypes.FLOAT) {
+            this.operator.skipBytes(this.buffer, 4);
+        } else {
+            // variable length values have to be decoded to find their end
+            type.read(wrapper);
+        }
+    }
+
+    private void add(int index, EntityDataType<?> type, int offset) {
+        if (this.size == this.offsets.length) {
+            int capacity = this.size * 2;
+            this.indexes = Arrays.copyOf(this.indexes, capacity);
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.offsets = Arrays.copyOf(this.offsets, capacity);
+        }
+        this.indexes[this.size] = index;
+        this.types[this.size] = type;
+        this.offsets[this.size] = offset;
+        this.size++;
+    }
+
+    private int find(int index) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.indexes[i] == index) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int offset(int index, EntityDataType<?> type) {
+        int entry = this.find(index);
+        if (entry == -1) {
+            throw new IllegalArgumentException("No entity metadata with index " + index);
+        }
+        if (this.types[entry] != type) {
+            throw new IllegalArgumentException("Entity metadata with index " + index + " is of type "
+                    + this.types[entry].getName() + ", not " + type.getName());
+        }
+        return this.offsets[entry];
+    }
+
+    public int getEntityId() {
+        return this.entityId;
+    }
+
+    /**
+     * @return the amount of metadata entries in this packet
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return whether this packet contains a metadata entry with the given index
+     */
+    public boolean has(int index) {
+        return this.find(index) != -1;
+    }
+
+    /**
+     * @return the type of the metadata entry with the given index, or null if there is no such entry
+     */
+    public @Nullable EntityDataType<?> getType(int index) {
+        int entry = this.find(index);
+        return entry != -1 ? this.types[entry] : null;
+    }
+
+    /**
+     * Decodes the value of the metadata entry with the given index, this works for every type.
+     *
+     * @return the value, or null if there is no such entry
+     */
+    public @Nullable Object getValue(int index) {
+        int entry = this.find(index);
+        if (entry == -1) {
+            return null;
+        }
+        int readerIndex = this.operator.readerIndex(this.buffer);
+        try {
+            this.operator.readerIndex(this.buffer, this.offsets[entry]);
+            return this.types[entry].read(PacketWrapper.createUniversalPacketWrapper(this.buffer, this.serverVersion));
+        } finally {
+            this.operator.readerIndex(this.buffer, readerIndex);
+        }
+    }
+
+    public byte getByte(int index) {
+        return (byte) this.operator.getUnsignedByte(this.buffer, this.offset(index, EntityDataTypes.BYTE));
+    }
+
+    public void setByte(int index, byte value) {
+        this.operator.setByte(this.buffer, this.offset(index, EntityDataTypes.BYTE), value);
+    }
+
+    /**
+     * @return whether all bits of the mask are set in the byte entry with the given index,
+     * e.g. {@code getFlag(0, 0x40)} for the glowing flag of an entity
+     */
+    public boolean getFlag(int index, int mask) {
+        return (this.getByte(index) & mask) == mask;
+    }
+
+    /**
+     * Sets or clears the bits of the mask in the byte entry with the given index.
+     */
+    public void setFlag(int index, int mask, boolean value) {
+        int offset = this.offset(index, EntityDataTypes.BYTE);
+        int flags = this.operator.getUnsignedByte(this.buffer, offset);
+        this.operator.setByte(this.buffer, offset, value ? flags | mask : flags & ~mask);
+    }
+
+    public boolean getBoolean(int index) {
+        return this.operator.getUnsignedByte(this.buffer, this.offset(index, EntityDataTypes.BOOLEAN)) != 0;
+    }
+
+    public void setBoolean(int index, boolean value) {
+        this.operator.setByte(this.buffer, this.offset(index, EntityDataTypes.BOOLEAN), value ? 1 : 0);
+    }
+
+    public float getFloat(int index) {
+        return Float.intBitsToFloat(this.operator.getInt(this.buffer, this.offset(index, EntityDataTypes.FLOAT)));
+    }
+
+    public void setFloat(int index, float value) {
+        this.operator.setInt(this.buffer, this.offset(index, EntityDataTypes.FLOAT), Float.floatToIntBits(value));
+    }
+
+    public int getInt(int index) {
+        int offset = this.offset(index, EntityDataTypes.INT);
+        if (this.serverVersion.isOlderThan(ServerVersion.V_1_9)) {
+            return this.operator.getInt(this.buffer, offset);
+        }
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            int b = this.operator.getUnsignedByte(this.buffer, offset + i);
+            value |= (b & 0x7F) << (i * 7);
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Changes the int entry with the given index. Since 1.9 ints are encoded as VarInts, the new value
+     * is padded to the length of the old value, which the client accepts.
+     *
+     * @throws IllegalArgumentException if the new value doesn't fit into the length of the old value,
+     *                                  the packet has to be re-encoded using a wrapper in that case
+     */
+    public void setInt(int index, int value) {
+        int offset = this.offset(index, EntityDataTypes.INT);
+        if (this.serverVersion.isOlderThan(ServerVersion.V_1_9)) {
+            this.operator.setInt(this.buffer, offset, value);
+            return;
+        }
+        int length = 1;
+        while ((this.operator.getUnsignedByte(this.buffer, offset + length - 1) & 0x80) != 0) {
+            length++;
+        }
+        if (length < 5 && value >>> (length * 7) != 0) {
+            throw new IllegalArgumentException("Can't patch " + value + " into a VarInt of " + length + " bytes");
+        }
+        for (int i = 0; i < length; i++) {
+            int b = (value >>> (i * 7)) & 0x7F;
+            this.operator.setByte(this.buffer, offset + i, i == length - 1 ? b : b | 0x80);
+        }
+    }
+}
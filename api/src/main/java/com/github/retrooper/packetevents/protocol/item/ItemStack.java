@@ -145,7 +145,7 @@ public class ItemStack {
         if (version.isNewerThanOrEquals(ClientVersion.V_1_20_5)) {
             boolean simple = itemStack.isEmpty()
                     || itemStack.components == null
-                    || itemStack.components.getPatches().isEmpty();
+                    || !itemStack.components.hasPatches();
             if (simple) {
                 return new NBTString(itemStack.type.getName().toString());
             }
@@ -318,13 +318,12 @@ public class ItemStack {
     }
 
     public boolean hasComponentPatches() {
-        return this.components != null && !this.components.getPatches().isEmpty();
+        return this.components != null && this.components.hasPatches();
     }
 
     public PatchableComponentMap getComponents() {
         if (this.components == null) { // lazy load on access
-            this.components = new PatchableComponentMap(
-                    this.type.getComponents(), new HashMap<>(4));
+            this.components = new PatchableComponentMap(this.type.getComponents());
         }
         return this.components;
     }
@@ -0,0 +1,197 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compound which keeps its encoded form and only decodes the tags which are accessed.
+ * <p>
+ * The offsets of the tags are indexed on first access, the values are decoded when they are requested.
+ * As long as nothing has been modified, the original bytes are written again when encoding this compound.
+ * Handing out a mutable tag (compounds, lists and arrays) counts as a modification.
+ */
+public class LazyNBTCompound extends NBTCompound {
+
+    // the encoded entries of this compound, including the end tag
+    private final byte[] data;
+    private @Nullable Object buffer;
+    // offsets of the entries which haven't been decoded yet
+    private @Nullable Map<String, Integer> offsets;
+    private boolean modified;
+
+    @ApiStatus.Internal
+    public LazyNBTCompound(byte[] data) {
+        this.data = data;
+    }
+
+    private void index() {
+        if (this.offsets != null) {
+            return;
+        }
+        Object buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(this.data);
+        Map<String, Integer> offsets = new HashMap<>();
+        try {
+            int typeId;
+            int offset = ByteBufHelper.readerIndex(buffer);
+            while ((typeId = ByteBufHelper.readByte(buffer)) != 0) {
+                String name = ByteBufNBTSerializer.readUTF(buffer);
+                ByteBufNBTSerializer.skipTag(NBTLimiter.noop(), buffer, typeId);
+                offsets.put(name, offset);
+                // keep the order of the entries, the values are filled in when decoding
+                this.tags.put(name, null);
+                offset = ByteBufHelper.readerIndex(buffer);
+            }
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+        this.buffer = buffer;
+        this.offsets = offsets;
+    }
+
+    private @Nullable NBT decode(String key) {
+        this.index();
+        Integer offset = this.offsets.remove(key);
+        if (offset == null) {
+            return this.tags.get(key);
+        }
+        NBT tag;
+        try {
+            ByteBufHelper.readerIndex(this.buffer, offset);
+            tag = ByteBufNBTSerializer.INSTANCE.deserializeTag(
+                    NBTLimiter.forBuffer(this.buffer), this.buffer, true);
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+        this.tags.put(key, tag);
+        if (!(tag instanceof NBTNumber) && !(tag instanceof NBTString)) {
+            // the caller may modify this tag, don't trust the encoded form anymore
+            this.modified = true;
+        }
+        return tag;
+    }
+
+    private void decodeAll() {
+        this.index();
+        if (!this.offsets.isEmpty()) {
+            for (String key : this.offsets.keySet().toArray(new String[0])) {
+                this.decode(key);
+            }
+        }
+    }
+
+    /**
+     * @return the encoded entries of this compound, or null if this compound may have been modified
+     */
+    @ApiStatus.Internal
+    public byte @Nullable [] getUnmodifiedData() {
+        return this.modified ? null : this.data;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (this.offsets == null) {
+            return this.data.length <= 1; // only the end tag
+        }
+        return super.isEmpty();
+    }
+
+    @Override
+    public boolean contains(String key) {
+        this.index();
+        return super.contains(key);
+    }
+
+    @Override
+    public Set<String> getTagNames() {
+        this.index();
+        return super.getTagNames();
+    }
+
+    @Override
+    public Map<String, NBT> getTags() {
+        this.decodeAll();
+        return super.getTags();
+    }
+
+    @Override
+    public int size() {
+        this.index();
+        return super.size();
+    }
+
+    @Override
+    public @Nullable NBT getTagOrNull(String key) {
+        return this.decode(key);
+    }
+
+    @Override
+    public NBT removeTag(String key) {
+        NBT tag = this.decode(key);
+        if (tag != null) {
+            this.modified = true;
+            this.tags.remove(key);
+        }
+        return tag;
+    }
+
+    @Override
+    public void setTag(String key, NBT tag) {
+        this.index();
+        this.offsets.remove(key);
+        this.modified = true;
+        super.setTag(key, tag);
+    }
+
+    @Override
+    public NBTCompound copy() {
+        if (!this.modified) {
+            return new LazyNBTCompound(this.data);
+        }
+        this.decodeAll();
+        return super.copy();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        this.decodeAll();
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        this.decodeAll();
+        return super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        this.decodeAll();
+        return super.toString();
+    }
+}
@@ -332,7 +332,7 @@ public class NBTCompound extends NBT {
             if (isEmpty() && ((NBTCompound) other).isEmpty()) {
                 return true;
             }
-            return tags.equals(((NBTCompound) other).tags);
+            return this.getTags().equals(((NBTCompound) other).getTags());
         }
         return false;
     }
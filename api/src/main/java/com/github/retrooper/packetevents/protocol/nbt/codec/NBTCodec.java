@@ -23,6 +23,7 @@ import com.github.retrooper.packetevents.netty.buffer.ByteBufInputStream;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufOutputStream;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.nbt.*;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
 import com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer;
 import com.google.gson.*;
 import com.google.gson.internal.LazilyParsedNumber;
@@ -158,8 +159,7 @@ public class NBTCodec {
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
             try {
                 final boolean named = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
-                return DefaultNBTSerializer.INSTANCE.deserializeTag(
-                        limiter, new ByteBufInputStream(byteBuf), named);
+                return ByteBufNBTSerializer.INSTANCE.deserializeTag(limiter, byteBuf, named);
             } catch (IOException ex) {
                 throw new IllegalStateException(ex);
             }
@@ -182,18 +182,44 @@ public class NBTCodec {
         }
     }
 
+    /**
+     * Reads nbt like {@link #readNBTFromBuffer(Object, ServerVersion)}, but compounds are returned
+     * as {@link LazyNBTCompound} which only decode the tags which are accessed.
+     */
+    public static NBT readLazyNBTFromBuffer(Object byteBuf, ServerVersion serverVersion) {
+        NBTLimiter limiter = NBTLimiter.forBuffer(byteBuf);
+        if (serverVersion.isOlderThan(ServerVersion.V_1_8)
+                || ByteBufHelper.getUnsignedByte(byteBuf, ByteBufHelper.readerIndex(byteBuf)) != 10) {
+            // gzipped or not a compound, nothing to gain here
+            return readNBTFromBuffer(byteBuf, serverVersion, limiter);
+        }
+        try {
+            ByteBufHelper.skipBytes(byteBuf, 1); // compound type id
+            if (serverVersion.isOlderThan(ServerVersion.V_1_20_2)) {
+                ByteBufNBTSerializer.skipString(limiter, byteBuf); // root name
+            }
+            int start = ByteBufHelper.readerIndex(byteBuf);
+            ByteBufNBTSerializer.skipTag(limiter, byteBuf, 10);
+            byte[] data = new byte[ByteBufHelper.readerIndex(byteBuf) - start];
+            ByteBufHelper.getBytes(byteBuf, start, data);
+            return new LazyNBTCompound(data);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
     public static void writeNBTToBuffer(Object byteBuf, ServerVersion serverVersion, NBTCompound tag) {
         writeNBTToBuffer(byteBuf, serverVersion, (NBT) tag);
     }
 
     public static void writeNBTToBuffer(Object byteBuf, ServerVersion serverVersion, NBT tag) {
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
-            try (ByteBufOutputStream outputStream = new ByteBufOutputStream(byteBuf)) {
+            try {
                 if (tag != null) {
                     boolean named = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
-                    DefaultNBTSerializer.INSTANCE.serializeTag(outputStream, tag, named);
+                    ByteBufNBTSerializer.INSTANCE.serializeTag(byteBuf, tag, named);
                 } else {
-                    DefaultNBTSerializer.INSTANCE.serializeTag(outputStream, NBTEnd.INSTANCE);
+                    ByteBufNBTSerializer.INSTANCE.serializeTag(byteBuf, NBTEnd.INSTANCE);
                 }
             } catch (IOException e) {
                 throw new IllegalStateException(e);
@@ -0,0 +1,543 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt.serializer;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByteArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTDouble;
+import com.github.retrooper.packetevents.protocol.nbt.NBTEnd;
+import com.github.retrooper.packetevents.protocol.nbt.NBTFloat;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTIntArray;
+import com.github.retrooper.packetevents.protocol.nbt.LazyNBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLong;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTShort;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Map.Entry;
+
+import static com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer.ARRAY_HEADER_BYTES;
+import static com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer.OBJECT_HEADER_BYTES;
+import static com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer.OBJECT_REF_BYTES;
+import static com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer.STRING_SIZE_BYTES;
+
+/**
+ * Reads and writes nbt directly from and to a netty buffer, without wrapping it in
+ * {@link java.io.DataInput} or {@link java.io.DataOutput} streams.
+ * <p>
+ * Strings are decoded from modified UTF-8 without any intermediate char array for plain ascii,
+ * and frequently used compound keys (e.g. of text components) are shared instead of allocated again.
+ */
+public class ByteBufNBTSerializer extends NBTSerializer<Object, Object> {
+
+    public static final ByteBufNBTSerializer INSTANCE = new ByteBufNBTSerializer();
+
+    private static final String[] INTERNED_STRINGS = {
+            "", "text", "translate", "with", "fallback", "extra", "color", "font", "bold", "italic",
+            "underlined", "strikethrough", "obfuscated", "insertion", "shadow_color", "type",
+            "clickEvent", "click_event", "hoverEvent", "hover_event", "action", "value", "contents",
+            "url", "path", "command", "page", "show_text", "show_item", "show_entity",
+            "id", "count", "components", "name", "uuid", "keybind", "score", "objective",
+            "selector", "separator", "nbt", "interpret", "block", "entity", "storage", "source",
+            "sprite", "atlas", "player", "hat", "object",
+            "black", "dark_blue", "dark_green", "dark_aqua", "dark_red", "dark_purple", "gold", "gray",
+            "dark_gray", "blue", "green", "aqua", "red", "light_purple", "yellow", "white",
+            "minecraft:custom_name", "minecraft:item_name", "minecraft:lore", "minecraft:enchantments",
+            "minecraft:custom_data", "minecraft:damage", "minecraft:max_damage", "minecraft:max_stack_size",
+            "minecraft:rarity", "minecraft:attribute_modifiers", "minecraft:repair_cost",
+            "display", "Name", "Lore", "Count", "Damage", "tag", "Enchantments", "lvl",
+    };
+    // open addressing table of the interned strings, indexed by their hash code
+    private static final String[] INTERN_TABLE;
+    private static final int INTERN_MASK;
+
+    private static final ThreadLocal<byte[]> STRING_BUFFER = ThreadLocal.withInitial(() -> new byte[256]);
+
+    static {
+        int size = Integer.highestOneBit(INTERNED_STRINGS.length * 4 - 1) << 1;
+        INTERN_TABLE = new String[size];
+        INTERN_MASK = size - 1;
+        for (String string : INTERNED_STRINGS) {
+            int index = mix(string.hashCode()) & INTERN_MASK;
+            while (INTERN_TABLE[index] != null) {
+                index = (index + 1) & INTERN_MASK;
+            }
+            INTERN_TABLE[index] = string;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public ByteBufNBTSerializer() {
+        super(
+                (limiter, buffer) -> ByteBufHelper.readByte(buffer),
+                ByteBufHelper::writeByte,
+                (limiter, buffer) -> {
+                    // only used for skipping the name of the root tag
+                    skipString(limiter, buffer);
+                    return "";
+                },
+                ByteBufNBTSerializer::writeString
+        );
+        registerType(NBTType.END, 0, (limiter, buffer) -> {
+            limiter.increment(OBJECT_HEADER_BYTES);
+            return NBTEnd.INSTANCE;
+        }, (buffer, tag) -> {
+        });
+        registerType(NBTType.BYTE, 1, (limiter, buffer) -> {
+            limiter.increment(OBJECT_HEADER_BYTES + Byte.BYTES);
+            return new NBTByte(ByteBufHelper.readByte(buffer));
+        }, (buffer, tag) -> ByteBufHelper.writeByte(buffer, tag.getAsByte()));
+        registerType(NBTType.SHORT, 2, (limiter, buffer) -> {
+            limiter.increment(OBJECT_HEADER_BYTES + Short.SIZE);
+            return new NBTShort(ByteBufHelper.readShort(buffer));
+        }, (buffer, tag) -> ByteBufHelper.writeShort(buffer, tag.getAsShort()));
+        registerType(NBTType.INT, 3, (limiter, buffer) -> {
+            limiter.increment(OBJECT_HEADER_BYTES + Integer.BYTES);
+            return new NBTInt(ByteBufHelper.readInt(buffer));
+        }, (buffer, tag) -> ByteBufHelper.writeInt(buffer, tag.getAsInt()));
+        registerType(NBTType.LONG, 4, (limiter, buffer) -> {
+            limiter.increment(OBJECT_HEADER_BYTES + Long.BYTES);
+            return new NBTLong(ByteBufHelper.readLong(buffer));
+        }, (buffer, tag) -> ByteBufHelper.writeLong(buffer, tag.getAsLong()));
+        registerType(NBTType.FLOAT, 5, (limiter, buffer) -> {
+            limiter.increment(OBJECT_HEADER_BYTES + Float.BYTES);
+            return new NBTFloat(ByteBufHelper.readFloat(buffer));
+        }, (buffer, tag) -> ByteBufHelper.writeFloat(buffer, tag.getAsFloat()));
+        registerType(NBTType.DOUBLE, 6, (limiter, buffer) -> {
+            limiter.increment(OBJECT_HEADER_BYTES + Double.BYTES);
+            return new NBTDouble(ByteBufHelper.readDouble(buffer));
+        }, (buffer, tag) -> ByteBufHelper.writeDouble(buffer, tag.getAsDouble()));
+        registerType(
+                NBTType.BYTE_ARRAY, 7,
+                (limiter, buffer) -> {
+                    limiter.increment(OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + Integer.BYTES);
+                    int length = ByteBufHelper.readInt(buffer);
+                    if (length >= 1 << 24) {
+                        throw new IllegalArgumentException("Byte array length is too large: " + length);
+                    }
+                    limiter.increment(Byte.BYTES * length);
+                    limiter.checkReadability(Byte.BYTES * length);
+
+                    byte[] array = new byte[length];
+                    ByteBufHelper.readBytes(buffer, array);
+                    return new NBTByteArray(array);
+                },
+                (buffer, tag) -> {
+                    byte[] array = tag.getValue();
+                    ByteBufHelper.writeInt(buffer, array.length);
+                    ByteBufHelper.writeBytes(buffer, array);
+                }
+        );
+        registerType(NBTType.STRING, 8, (limiter, buffer) -> {
+            limiter.increment(OBJECT_HEADER_BYTES + STRING_SIZE_BYTES);
+            String string = readUTF(buffer);
+            limiter.increment(string.length() * Character.BYTES);
+            return new NBTString(string);
+        }, (buffer, tag) -> writeString(buffer, tag.getValue()));
+        registerType(
+                NBTType.LIST, 9,
+                (limiter, buffer) -> {
+                    limiter.enterDepth();
+                    try {
+                        limiter.increment(OBJECT_HEADER_BYTES + OBJECT_REF_BYTES // list tag
+                                + OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + Integer.BYTES); // arraylist
+                        NBTType<? extends NBT> valueType = readTagType(limiter, buffer);
+                        int size = ByteBufHelper.readInt(buffer);
+                        if (valueType == NBTType.END && size > 0) {
+                            throw new IllegalStateException("Missing nbt list values tag type");
+                        }
+                        limiter.increment(OBJECT_REF_BYTES * size);
+                        NBTList<NBT> list = new NBTList<>((NBTType<NBT>) valueType, size);
+                        for (int i = 0; i < size; i++) {
+                            list.addTag(readTag(limiter, buffer, valueType));
+                        }
+                        return list;
+                    } finally {
+                        limiter.exitDepth();
+                    }
+                },
+                (buffer, tag) -> {
+                    writeTagType(buffer, tag.getTagsType());
+                    ByteBufHelper.writeInt(buffer, tag.size());
+                    for (NBT value : ((List<NBT>) tag.getTags())) {
+                        writeTag(buffer, value);
+                    }
+                }
+        );
+        registerType(
+                NBTType.COMPOUND, 10,
+                (limiter, buffer) -> {
+                    limiter.enterDepth();
+                    try {
+                        limiter.increment(OBJECT_HEADER_BYTES + OBJECT_REF_BYTES // compound tag
+                                + OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + Integer.BYTES + Integer.BYTES + Integer.BYTES + Float.BYTES); // hashmap
+                        NBTCompound compound = new NBTCompound();
+                        NBTType<?> valueType;
+                        while ((valueType = readTagType(limiter, buffer)) != NBTType.END) {
+                            String name = readString(limiter, buffer);
+                            NBT tag = readTag(limiter, buffer, valueType);
+                            if (!compound.getTags().containsKey(name)) {
+                                limiter.increment(12 + OBJECT_HEADER_BYTES + Integer.BYTES + OBJECT_REF_BYTES + OBJECT_REF_BYTES + OBJECT_REF_BYTES);
+                            }
+                            compound.setTag(name, tag);
+                        }
+                        return compound;
+                    } finally {
+                        limiter.exitDepth();
+                    }
+                },
+                (buffer, tag) -> {
+                    if (tag instanceof LazyNBTCompound) {
+                        byte[] data = ((LazyNBTCompound) tag).getUnmodifiedData();
+                        if (data != null) {
+                            ByteBufHelper.writeBytes(buffer, data);
+                            return;
+                        }
+                    }
+                    for (Entry<String, NBT> entry : tag.getTags().entrySet()) {
+                        NBT value = entry.getValue();
+                        writeTagType(buffer, value.getType());
+                        writeTagName(buffer, entry.getKey());
+                        writeTag(buffer, value);
+                    }
+                    writeTagType(buffer, NBTType.END);
+                }
+        );
+        registerType(
+                NBTType.INT_ARRAY, 11,
+                (limiter, buffer) -> {
+                    limiter.increment(OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + Integer.BYTES);
+                    int length = ByteBufHelper.readInt(buffer);
+                    if (length >= 1 << 24) {
+                        throw new IllegalArgumentException("Int array length is too large: " + length);
+                    }
+                    limiter.increment(length * Integer.BYTES);
+                    limiter.checkReadability(length * Integer.BYTES);
+
+                    int[] array = new int[length];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = ByteBufHelper.readInt(buffer);
+                    }
+                    return new NBTIntArray(array);
+                },
+                (buffer, tag) -> {
+                    int[] array = tag.getValue();
+                    ByteBufHelper.writeInt(buffer, array.length);
+                    for (int i : array) {
+                        ByteBufHelper.writeInt(buffer, i);
+                    }
+                }
+        );
+        registerType(
+                NBTType.LONG_ARRAY, 12,
+                (limiter, buffer) -> {
+                    limiter.increment(OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + Integer.BYTES);
+                    int length = ByteBufHelper.readInt(buffer);
+                    if (length >= 1 << 24) {
+                        throw new IllegalArgumentException("Long array length is too large: " + length);
+                    }
+                    limiter.increment(length * Long.BYTES);
+                    limiter.checkReadability(length * Long.BYTES);
+
+                    long[] array = new long[length];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = ByteBufHelper.readLong(buffer);
+                    }
+                    return new NBTLongArray(array);
+                },
+                (buffer, tag) -> {
+                    long[] array = tag.getValue();
+                    ByteBufHelper.writeInt(buffer, array.length);
+                    for (long i : array) {
+                        ByteBufHelper.writeLong(buffer, i);
+                    }
+                }
+        );
+    }
+
+    /**
+     * Skips the value of a tag without decoding it, while still enforcing the limits.
+     *
+     * @param typeId the id of the type of the tag to skip
+     */
+    @ApiStatus.Internal
+    public static void skipTag(NBTLimiter limiter, Object buffer, int typeId) throws IOException {
+        switch (typeId) {
+            case 0: // end
+                break;
+            case 1: // byte
+            case 2: // short
+            case 3: // int
+            case 4: // long
+            case 5: // float
+            case 6: // double
+                skipBytes(limiter, buffer, getFixedSize(typeId));
+                break;
+            case 7: // byte array
+                skipBytes(limiter, buffer, readArrayLength(buffer, 1 << 24) * Byte.BYTES);
+                break;
+            case 8: // string
+                skipBytes(limiter, buffer, ByteBufHelper.readUnsignedShort(buffer));
+                break;
+            case 9: { // list
+                limiter.enterDepth();
+                try {
+                    int valueTypeId = ByteBufHelper.readByte(buffer);
+                    int size = ByteBufHelper.readInt(buffer);
+                    if (size < 0) {
+                        throw new IllegalArgumentException("List size is negative: " + size);
+                    } else if (valueTypeId == 0 && size > 0) {
+                        throw new IllegalStateException("Missing nbt list values tag type");
+                    }
+                    int fixedSize = getFixedSize(valueTypeId);
+                    if (fixedSize != -1) {
+                        if ((long) size * fixedSize > Integer.MAX_VALUE) {
+                            throw new IllegalArgumentException("List size is too large: " + size);
+                        }
+                        skipBytes(limiter, buffer, size * fixedSize);
+                    } else {
+                        for (int i = 0; i < size; i++) {
+                            skipTag(limiter, buffer, valueTypeId);
+                        }
+                    }
+                } finally {
+                    limiter.exitDepth();
+                }
+                break;
+            }
+            case 10: { // compound
+                limiter.enterDepth();
+                try {
+                    int valueTypeId;
+                    while ((valueTypeId = ByteBufHelper.readByte(buffer)) != 0) {
+                        skipBytes(limiter, buffer, ByteBufHelper.readUnsignedShort(buffer));
+                        skipTag(limiter, buffer, valueTypeId);
+                    }
+                } finally {
+                    limiter.exitDepth();
+                }
+                break;
+            }
+            case 11: // int array
+                skipBytes(limiter, buffer, readArrayLength(buffer, 1 << 24) * Integer.BYTES);
+                break;
+            case 12: // long array
+                skipBytes(limiter, buffer, readArrayLength(buffer, 1 << 24) * Long.BYTES);
+                break;
+            default:
+                throw new IOException(MessageFormat.format("Unknown nbt type id {0}", typeId));
+        }
+    }
+
+    private static int getFixedSize(int typeId) {
+        switch (typeId) {
+            case 1:
+                return Byte.BYTES;
+            case 2:
+                return Short.BYTES;
+            case 3:
+            case 5:
+                return Integer.BYTES;
+            case 4:
+            case 6:
+                return Long.BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    private static int readArrayLength(Object buffer, int maxLength) {
+        int length = ByteBufHelper.readInt(buffer);
+        if (length < 0 || length >= maxLength) {
+            throw new IllegalArgumentException("Array length is invalid: " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Skips a string without decoding it, it is still charged to the limiter.
+     */
+    @ApiStatus.Internal
+    public static void skipString(NBTLimiter limiter, Object buffer) {
+        int length = ByteBufHelper.readUnsignedShort(buffer);
+        limiter.increment(STRING_SIZE_BYTES);
+        skipBytes(limiter, buffer, length);
+    }
+
+    private static void skipBytes(NBTLimiter limiter, Object buffer, int length) {
+        limiter.checkReadability(length);
+        limiter.increment(length);
+        ByteBufHelper.skipBytes(buffer, length);
+    }
+
+    @ApiStatus.Internal
+    public static String readString(NBTLimiter limiter, Object buffer) throws IOException {
+        String string = readUTF(buffer);
+        limiter.increment(STRING_SIZE_BYTES + Character.BYTES * string.length());
+        return string;
+    }
+
+    /**
+     * Reads a string in the modified UTF-8 format of {@link java.io.DataInput#readUTF()}.
+     */
+    @ApiStatus.Internal
+    public static String readUTF(Object buffer) throws IOException {
+        int length = ByteBufHelper.readUnsignedShort(buffer);
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = STRING_BUFFER.get();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length << 1)];
+            STRING_BUFFER.set(bytes);
+        }
+        ByteBufHelper.readBytes(buffer, bytes, 0, length);
+
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[i];
+            if (b <= 0) {
+                // not ascii, or a zero byte which is invalid in modified UTF-8
+                return decodeUTF(bytes, length);
+            }
+            hash = 31 * hash + b;
+        }
+        // the hash is equal to the hash code of the decoded string
+        for (int index = mix(hash) & INTERN_MASK; INTERN_TABLE[index] != null; index = (index + 1) & INTERN_MASK) {
+            String interned = INTERN_TABLE[index];
+            if (interned.length() == length && matches(interned, bytes)) {
+                return interned;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Writes a string in the modified UTF-8 format of {@link java.io.DataOutput#writeUTF(String)}.
+     */
+    @ApiStatus.Internal
+    public static void writeString(Object buffer, String string) throws IOException {
+        int length = string.length();
+        int encodedLength = length;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c >= 0x80 || c == 0) {
+                encodedLength += c >= 0x800 ? 2 : 1;
+            }
+        }
+        if (encodedLength > 0xFFFF) {
+            throw new UTFDataFormatException("Encoded string too long: " + encodedLength + " bytes");
+        }
+        ByteBufHelper.writeShort(buffer, encodedLength);
+        if (encodedLength == length) {
+            // plain ascii
+            ByteBufHelper.writeBytes(buffer, string.getBytes(StandardCharsets.ISO_8859_1));
+            return;
+        }
+        byte[] bytes = new byte[encodedLength];
+        int index = 0;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c < 0x80 && c != 0) {
+                bytes[index++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[index++] = (byte) (0xC0 | (c >> 6));
+                bytes[index++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                bytes[index++] = (byte) (0xE0 | (c >> 12));
+                bytes[index++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[index++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        ByteBufHelper.writeBytes(buffer, bytes);
+    }
+
+    private static String decodeUTF(byte[] bytes, int length) throws UTFDataFormatException {
+        char[] chars = new char[length];
+        int charCount = 0;
+        int index = 0;
+        while (index < length) {
+            int b = bytes[index] & 0xFF;
+            switch (b >> 4) {
+                case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+                    // 0xxxxxxx
+                    index++;
+                    chars[charCount++] = (char) b;
+                    break;
+                case 12: case 13: {
+                    // 110x xxxx 10xx xxxx
+                    if (index + 2 > length) {
+                        throw new UTFDataFormatException("Malformed input: partial character at end");
+                    }
+                    int b2 = bytes[index + 1];
+                    if ((b2 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("Malformed input around byte " + (index + 1));
+                    }
+                    chars[charCount++] = (char) (((b & 0x1F) << 6) | (b2 & 0x3F));
+                    index += 2;
+                    break;
+                }
+                case 14: {
+                    // 1110 xxxx 10xx xxxx 10xx xxxx
+                    if (index + 3 > length) {
+                        throw new UTFDataFormatException("Malformed input: partial character at end");
+                    }
+                    int b2 = bytes[index + 1];
+                    int b3 = bytes[index + 2];
+                    if ((b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("Malformed input around byte " + (index + 2));
+                    }
+                    chars[charCount++] = (char) (((b & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F));
+                    index += 3;
+                    break;
+                }
+                default:
+                    // 10xx xxxx, 1111 xxxx
+                    throw new UTFDataFormatException("Malformed input around byte " + index);
+            }
+        }
+        return new String(chars, 0, charCount);
+    }
+
+    private static boolean matches(String string, byte[] bytes) {
+        for (int i = 0, len = string.length(); i < len; i++) {
+            if (string.charAt(i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
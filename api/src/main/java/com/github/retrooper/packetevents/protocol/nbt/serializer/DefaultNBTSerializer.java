@@ -27,6 +27,7 @@ import com.github.retrooper.packetevents.protocol.nbt.NBTEnd;
 import com.github.retrooper.packetevents.protocol.nbt.NBTFloat;
 import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
 import com.github.retrooper.packetevents.protocol.nbt.NBTIntArray;
+import com.github.retrooper.packetevents.protocol.nbt.LazyNBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
 import com.github.retrooper.packetevents.protocol.nbt.NBTList;
 import com.github.retrooper.packetevents.protocol.nbt.NBTLong;
@@ -176,6 +177,13 @@ public class DefaultNBTSerializer extends NBTSerializer<DataInput, DataOutput> {
                     }
                 },
                 (stream, tag) -> {
+                    if (tag instanceof LazyNBTCompound) {
+                        byte[] data = ((LazyNBTCompound) tag).getUnmodifiedData();
+                        if (data != null) {
+                            stream.write(data);
+                            return;
+                        }
+                    }
                     for (Entry<String, NBT> entry : tag.getTags().entrySet()) {
                         NBT value = entry.getValue();
                         writeTagType(stream, value.getType());
@@ -78,6 +78,22 @@ public class NPC {
 
     public void spawn(Object channel) {
         if (hasSpawned(channel)) return;
+        // send everything in one flush, bundled so the client never sees a half spawned npc
+        User user = PacketEvents.getAPI().getProtocolManager().getUser(channel);
+        if (user != null) {
+            user.beginBatch(true);
+        }
+        try {
+            sendSpawnPackets(channel, user);
+        } finally {
+            if (user != null) {
+                user.endBatch();
+            }
+        }
+        channels.add(channel);
+    }
+
+    private void sendSpawnPackets(Object channel, @Nullable User user) {
         PacketWrapper<?> playerInfo;
         if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_19_3)) {
             playerInfo = new WrapperPlayServerPlayerInfoUpdate(WrapperPlayServerPlayerInfoUpdate.Action.ADD_PLAYER,
@@ -86,7 +102,7 @@ public class NPC {
         else {
             playerInfo = new WrapperPlayServerPlayerInfo(WrapperPlayServerPlayerInfo.Action.ADD_PLAYER, getLegacyPlayerInfoData());
         }
-        PacketEvents.getAPI().getProtocolManager().sendPacket(channel, playerInfo);
+        sendPacket(channel, user, playerInfo);
 
         //TODO Later if we want entity metadata, its not supported on newer server versions though(confirm if its mandatory on older versions)
 
@@ -99,14 +115,21 @@ public class NPC {
                     getProfile().getUUID(),
                     getLocation());
         }
-        PacketEvents.getAPI().getProtocolManager().sendPacket(channel, spawnPacket);
+        sendPacket(channel, user, spawnPacket);
 
         //Create team
         if (getNameColor() != null || getPrefixName() != null
                 || getSuffixName() != null) {
-            PacketEvents.getAPI().getProtocolManager().sendPacket(channel, generateTeamsData());
+            sendPacket(channel, user, generateTeamsData());
+        }
+    }
+
+    private static void sendPacket(Object channel, @Nullable User user, PacketWrapper<?> wrapper) {
+        if (user != null) {
+            user.sendPacket(wrapper);
+        } else {
+            PacketEvents.getAPI().getProtocolManager().sendPacket(channel, wrapper);
         }
-        channels.add(channel);
     }
 
     public void despawn(Object channel) {
@@ -359,8 +359,6 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 public final class PacketType {
 
@@ -486,6 +484,27 @@ public final class PacketType {
         }
     }
 
+    /**
+     * Returns all packet type constants which exist for the given side and connection state.
+     * The returned array is indexed by the ordinal of each constant.
+     */
+    public static PacketTypeCommon[] values(PacketSide side, ConnectionState state) {
+        switch (state) {
+            case HANDSHAKING:
+                return side == PacketSide.CLIENT ? Handshaking.Client.values() : Handshaking.Server.values();
+            case STATUS:
+                return side == PacketSide.CLIENT ? Status.Client.values() : Status.Server.values();
+            case LOGIN:
+                return side == PacketSide.CLIENT ? Login.Client.values() : Login.Server.values();
+            case PLAY:
+                return side == PacketSide.CLIENT ? Play.Client.values() : Play.Server.values();
+            case CONFIGURATION:
+                return side == PacketSide.CLIENT ? Configuration.Client.values() : Configuration.Server.values();
+            default:
+                return new PacketTypeCommon[0];
+        }
+    }
+
     public static class Handshaking {
 
         public enum Client implements PacketTypeConstant, ServerBoundPacket {
@@ -801,7 +820,8 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            // packet types indexed by [version mapper index][packet id]
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[SERVERBOUND_CONFIG_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
             private final Class<? extends PacketWrapper<?>> wrapper;
 
@@ -827,13 +847,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Configuration.Client value = Configuration.Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -846,8 +867,8 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = SERVERBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                PacketTypeCommon[] table = PACKET_TYPE_ID_TABLE[index];
+                return packetId >= 0 && packetId < table.length ? table[packetId] : null;
             }
 
             @Deprecated
@@ -933,7 +954,8 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            // packet types indexed by [version mapper index][packet id]
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[CLIENTBOUND_CONFIG_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
             private final Class<? extends PacketWrapper<?>> wrapper;
 
@@ -961,13 +983,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Configuration.Server value = Configuration.Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -980,8 +1003,8 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = CLIENTBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                PacketTypeCommon[] table = PACKET_TYPE_ID_TABLE[index];
+                return packetId >= 0 && packetId < table.length ? table[packetId] : null;
             }
 
             @Deprecated
@@ -1169,7 +1192,8 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            // packet types indexed by [version mapper index][packet id]
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[SERVERBOUND_PLAY_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
             private final Class<? extends PacketWrapper<?>> wrapper;
 
@@ -1190,20 +1214,20 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = SERVERBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                return packetIdMap.get(packetId);
+                PacketTypeCommon[] table = PACKET_TYPE_ID_TABLE[index];
+                return packetId >= 0 && packetId < table.length ? table[packetId] : null;
             }
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Client value = Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index,
-                            k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -1572,7 +1596,8 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            // packet types indexed by [version mapper index][packet id]
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[CLIENTBOUND_PLAY_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
             private final Class<? extends PacketWrapper<?>> wrapper;
 
@@ -1601,8 +1626,8 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = CLIENTBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                PacketTypeCommon[] table = PACKET_TYPE_ID_TABLE[index];
+                return packetId >= 0 && packetId < table.length ? table[packetId] : null;
             }
 
             @Override
@@ -1612,13 +1637,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Server value = Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -35,10 +35,12 @@ import com.github.retrooper.packetevents.protocol.world.Dimension;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionType;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionTypes;
 import com.github.retrooper.packetevents.resources.ResourceLocation;
+import com.github.retrooper.packetevents.util.PacketRateLimiter;
 import com.github.retrooper.packetevents.util.adventure.AdventureSerializer;
 import com.github.retrooper.packetevents.util.mappings.IRegistry;
 import com.github.retrooper.packetevents.util.mappings.IRegistryHolder;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChatMessage;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerCloseWindow;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSetTitleSubtitle;
@@ -58,12 +60,25 @@ import java.util.UUID;
 
 public class User implements IRegistryHolder {
 
+    /**
+     * The maximum amount of packets the client accepts in a single bundle.
+     * Larger batches are split into multiple bundles.
+     */
+    public static final int MAX_BUNDLE_SIZE = 4096;
+
+    // batches are confined to the thread which started them, packets sent from other threads aren't batched
+    private static final ThreadLocal<@Nullable Batch> BATCHES = new ThreadLocal<>();
+
     private final Object channel;
     private ConnectionState decoderState;
     private ConnectionState encoderState;
     private ClientVersion clientVersion;
     private final UserProfile profile;
     private int entityId = -1;
+    // packet events which can be reused for the next packet, only accessed from the event loop of the channel
+    private ProtocolPacketEvent @Nullable [] recycledEvents;
+    // token buckets of the packet rate limiter, only accessed from the event loop of the channel
+    private PacketRateLimiter.@Nullable State rateLimitState;
 
     private DimensionType dimensionType = DimensionTypes.OVERWORLD;
     private final Map<ResourceLocation, IRegistry<?>> registries = new HashMap<>();
@@ -89,6 +104,23 @@ public class User implements IRegistryHolder {
         this.registries.put(registry.getRegistryKey(), registry);
     }
 
+    @ApiStatus.Internal
+    public ProtocolPacketEvent[] getRecycledEvents() {
+        if (this.recycledEvents == null) {
+            this.recycledEvents = new ProtocolPacketEvent[ConnectionState.values().length * 2];
+        }
+        return this.recycledEvents;
+    }
+
+    @ApiStatus.Internal
+    public PacketRateLimiter.State getRateLimitState(PacketRateLimiter limiter) {
+        PacketRateLimiter.State state = this.rateLimitState;
+        if (state == null || state.getLimiter() != limiter) {
+            this.rateLimitState = state = limiter.createState();
+        }
+        return state;
+    }
+
     public Object getChannel() {
         return channel;
     }
@@ -172,19 +204,141 @@ public class User implements IRegistryHolder {
         this.entityId = entityId;
     }
 
+    /**
+     * Starts batching the packets sent to this user from the current thread.
+     * Until the matching {@link #endBatch()} call on the same thread, packets sent through this user
+     * from this thread are only written to the channel, all of them are flushed at once when the batch ends.
+     * Packets sent from other threads in the meantime aren't batched.
+     * Batches may be nested, only the outermost batch flushes.
+     *
+     * @param bundle Whether the batched packets should be wrapped in a bundle, so the client processes
+     *               all of them in the same tick. Only applied if the client supports bundles.
+     *               Batches with more than {@link #MAX_BUNDLE_SIZE} packets are split into multiple bundles.
+     */
+    public void beginBatch(boolean bundle) {
+        Batch batch = this.getBatch();
+        if (batch != null) {
+            batch.depth++;
+            return;
+        }
+        batch = new Batch(this, BATCHES.get());
+        BATCHES.set(batch);
+        batch.bundled = bundle && this.getEncoderState() == ConnectionState.PLAY
+                && this.getPacketVersion().isNewerThanOrEquals(ClientVersion.V_1_19_4);
+        if (batch.bundled) {
+            this.writePacket(new WrapperPlayServerBundle());
+        }
+    }
+
+    /**
+     * Starts batching the packets sent to this user, without bundling them.
+     *
+     * @see #beginBatch(boolean)
+     */
+    public void beginBatch() {
+        this.beginBatch(false);
+    }
+
+    /**
+     * Ends the current batch of this thread. If this was the outermost batch, all batched packets are flushed.
+     *
+     * @throws IllegalStateException if no batch has been started on this thread
+     */
+    public void endBatch() {
+        Batch batch = this.getBatch();
+        if (batch == null) {
+            throw new IllegalStateException("No batch has been started for " + this.getName()
+                    + " on thread " + Thread.currentThread().getName());
+        }
+        if (--batch.depth != 0) {
+            return;
+        }
+        this.removeBatch(batch);
+        if (batch.bundled) {
+            this.writePacket(new WrapperPlayServerBundle());
+        }
+        this.flushPackets();
+    }
+
+    /**
+     * @return Whether the current thread is batching the packets sent to this user
+     */
+    public boolean isBatching() {
+        return this.getBatch() != null;
+    }
+
+    private @Nullable Batch getBatch() {
+        for (Batch batch = BATCHES.get(); batch != null; batch = batch.parent) {
+            if (batch.user == this) {
+                return batch;
+            }
+        }
+        return null;
+    }
+
+    private void removeBatch(Batch batch) {
+        Batch head = BATCHES.get();
+        if (head == batch) {
+            if (batch.parent == null) {
+                BATCHES.remove();
+            } else {
+                BATCHES.set(batch.parent);
+            }
+            return;
+        }
+        // batches of different users don't have to be ended in order
+        for (Batch child = head; child != null; child = child.parent) {
+            if (child.parent == batch) {
+                child.parent = batch.parent;
+                return;
+            }
+        }
+    }
+
+    //Returns true if the packet has to be written instead of sent, because it is part of a batch
+    private boolean batchPacket() {
+        Batch batch = this.getBatch();
+        if (batch == null) {
+            return false;
+        }
+        if (batch.bundled && ++batch.bundledPackets > MAX_BUNDLE_SIZE) {
+            // the client rejects bundles which are too large, start a new one
+            this.writePacket(new WrapperPlayServerBundle());
+            this.writePacket(new WrapperPlayServerBundle());
+            batch.bundledPackets = 1;
+        }
+        return true;
+    }
+
     public void sendPacket(Object buffer) {
+        if (this.batchPacket()) {
+            this.writePacket(buffer);
+            return;
+        }
         PacketEvents.getAPI().getProtocolManager().sendPacket(channel, buffer);
     }
 
     public void sendPacket(PacketWrapper<?> wrapper) {
+        if (this.batchPacket()) {
+            this.writePacket(wrapper);
+            return;
+        }
         PacketEvents.getAPI().getProtocolManager().sendPacket(channel, wrapper);
     }
 
     public void sendPacketSilently(Object buffer) {
+        if (this.batchPacket()) {
+            this.writePacketSilently(buffer);
+            return;
+        }
         PacketEvents.getAPI().getProtocolManager().sendPacketSilently(channel, buffer);
     }
 
     public void sendPacketSilently(PacketWrapper<?> wrapper) {
+        if (this.batchPacket()) {
+            this.writePacketSilently(wrapper);
+            return;
+        }
         PacketEvents.getAPI().getProtocolManager().sendPacketSilently(channel, wrapper);
     }
 
@@ -237,7 +391,7 @@ public class User implements IRegistryHolder {
 
     public void closeInventory() {
         WrapperPlayServerCloseWindow closeWindow = new WrapperPlayServerCloseWindow(0);
-        PacketEvents.getAPI().getProtocolManager().sendPacket(channel, closeWindow);
+        this.sendPacket(closeWindow);
     }
 
     public void sendMessage(String legacyMessage) {
@@ -262,7 +416,7 @@ public class User implements IRegistryHolder {
             }
             chatPacket = new WrapperPlayServerChatMessage(message);
         }
-        PacketEvents.getAPI().getProtocolManager().sendPacket(channel, chatPacket);
+        this.sendPacket(chatPacket);
     }
 
     public void sendTitle(String legacyTitle, String legacySubtitle,
@@ -425,4 +579,20 @@ public class User implements IRegistryHolder {
     public String getWorldName(Dimension dimension) {
         throw new UnsupportedOperationException();
     }
+
+    private static final class Batch {
+
+        private final User user;
+        // the batch of another user started earlier on the same thread
+        private @Nullable Batch parent;
+        // amount of nested batches, the batch ends once this reaches 0
+        private int depth = 1;
+        private boolean bundled;
+        private int bundledPackets;
+
+        private Batch(User user, @Nullable Batch parent) {
+            this.user = user;
+            this.parent = parent;
+        }
+    }
 }
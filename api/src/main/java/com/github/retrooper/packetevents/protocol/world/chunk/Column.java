@@ -27,6 +27,7 @@ package com.github.retrooper.packetevents.protocol.world.chunk;
 import com.github.retrooper.packetevents.protocol.nbt.NBT;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
@@ -35,6 +36,14 @@ import java.util.EnumMap;
 import java.util.Map;
 
 public class Column {
+
+    @ApiStatus.Internal
+    public static final int HEIGHTMAPS = 1;
+    @ApiStatus.Internal
+    public static final int CHUNKS = 1 << 1;
+    @ApiStatus.Internal
+    public static final int TILE_ENTITIES = 1 << 2;
+
     private final int x;
     private final int z;
     private final boolean fullChunk;
@@ -47,6 +56,8 @@ public class Column {
 
     private int[] biomeDataInts;
     private byte[] biomeDataBytes;
+    // the mutable parts which have been handed out, these may have been modified since
+    private int accessedParts;
 
     public Column(int x, int z, boolean fullChunk, BaseChunk[] chunks, TileEntity[] tileEntities, int[] biomeData) {
         this.x = x;
@@ -149,10 +160,12 @@ public class Column {
     }
 
     public BaseChunk[] getChunks() {
+        this.accessedParts |= CHUNKS;
         return chunks;
     }
 
     public TileEntity[] getTileEntities() {
+        this.accessedParts |= TILE_ENTITIES;
         return tileEntities;
     }
 
@@ -166,6 +179,7 @@ public class Column {
      */
     @Deprecated
     public NBTCompound getHeightMaps() {
+        this.accessedParts |= HEIGHTMAPS;
         // convert back to legacy format
         if (this.heightmapsNbt == null) {
             this.heightmapsNbt = new NBTCompound();
@@ -181,6 +195,7 @@ public class Column {
      * lazily parses the heightmaps nbt to a map, if below 1.21.5
      */
     public Map<HeightmapType, long[]> getHeightmaps() {
+        this.accessedParts |= HEIGHTMAPS;
         if (this.heightmaps == null) {
             if (!this.hasHeightmaps || this.heightmapsNbt.isEmpty()) {
                 this.heightmaps = Collections.emptyMap();
@@ -210,4 +225,13 @@ public class Column {
     public byte[] getBiomeDataBytes() {
         return biomeDataBytes;
     }
+
+    /**
+     * @param part {@link #HEIGHTMAPS}, {@link #CHUNKS} or {@link #TILE_ENTITIES}
+     * @return whether the part has been handed out, so it may have been modified
+     */
+    @ApiStatus.Internal
+    public boolean isAccessed(int part) {
+        return (this.accessedParts & part) != 0;
+    }
 }
@@ -28,6 +28,8 @@ import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalett
 import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
+import java.util.function.IntUnaryOperator;
+
 public class Chunk_v1_18 implements BaseChunk {
 
     private static final int AIR = 0;
@@ -111,6 +113,21 @@ public class Chunk_v1_18 implements BaseChunk {
         }
     }
 
+    /**
+     * Replaces every block state of this section, see {@link DataPalette#replaceAll(IntUnaryOperator)}.
+     * The block count is updated accordingly.
+     */
+    public void replaceAll(IntUnaryOperator operator) {
+        this.chunkData.replaceAll(operator);
+        int[] nonAirBlocks = {0};
+        this.chunkData.forEachState(state -> {
+            if (state != AIR) {
+                nonAirBlocks[0]++;
+            }
+        });
+        this.blockCount = nonAirBlocks[0];
+    }
+
     @Override
     public boolean isEmpty() {
         return this.blockCount == 0;
@@ -25,6 +25,9 @@ import com.github.retrooper.packetevents.protocol.world.chunk.storage.BitStorage
 import com.github.retrooper.packetevents.protocol.world.chunk.storage.LegacyFlexibleStorage;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
 public class DataPalette {
 
     public final PaletteType paletteType;
@@ -186,6 +189,128 @@ public class DataPalette {
         }
     }
 
+    /**
+     * Replaces all entries of this palette at once, which is a lot cheaper than calling
+     * {@link #set(int, int, int, int)} for every single entry.
+     * The palette is rebuilt, so states which are no longer present don't take up any space.
+     *
+     * @param states the new states, indexed in storage order (y, z, x)
+     */
+    public void setAll(int[] states) {
+        int size = this.paletteType.getStorageSize();
+        if (states.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " states, got " + states.length);
+        }
+        int bitsPerEntry = this.paletteType.getMaxBitsPerEntryForList();
+        this.palette = new ListPalette(bitsPerEntry);
+        this.storage = new BitStorage(bitsPerEntry, size);
+
+        // neighbouring entries are very often the same state
+        int lastState = states[0];
+        int lastId = this.palette.stateToId(lastState);
+        for (int i = 0; i < size; i++) {
+            int state = states[i];
+            if (state != lastState) {
+                int id = this.palette.stateToId(state);
+                if (id == -1) {
+                    this.resizeOneUp();
+                    id = this.palette.stateToId(state);
+                }
+                lastState = state;
+                lastId = id;
+            }
+            this.storage.set(i, lastId);
+        }
+    }
+
+    /**
+     * Passes the state of every entry to the consumer, in storage order (y, z, x).
+     * This walks the storage once instead of looking up every single entry.
+     */
+    public void forEachState(IntConsumer consumer) {
+        if (this.storage == null) {
+            int state = this.palette.idToState(0);
+            for (int i = 0, len = this.paletteType.getStorageSize(); i < len; i++) {
+                consumer.accept(state);
+            }
+        } else if (this.palette instanceof GlobalPalette) {
+            // the storage holds the states themselves
+            this.storage.forEach(consumer);
+        } else {
+            int[] states = this.getPaletteStates();
+            this.storage.forEach(id -> consumer.accept(id < states.length ? states[id] : 0));
+        }
+    }
+
+    /**
+     * Replaces the state of every entry with the result of the operator.
+     * <p>
+     * The operator is only called once per palette entry, unless the global palette is used.
+     * If it maps all present states to different states, only the palette is rewritten.
+     * Otherwise, the storage is remapped in place without changing the bits per entry.
+     */
+    public void replaceAll(IntUnaryOperator operator) {
+        this.replaceAll(operator, this.storage != null ? this.storage.getBitsPerEntry() : GlobalPalette.BITS_PER_ENTRY);
+    }
+
+    /**
+     * Replaces the state of every entry with the result of the operator, see {@link #replaceAll(IntUnaryOperator)}.
+     * <p>
+     * If the global palette is used, the states are packed with the given bits per entry afterward,
+     * as the global ids of another version may need more or less bits.
+     *
+     * @param globalBitsPerEntry the bits per entry of the global palette the new states belong to
+     */
+    public void replaceAll(IntUnaryOperator operator, int globalBitsPerEntry) {
+        if (this.storage == null) {
+            int state = this.palette.idToState(0);
+            int newState = operator.applyAsInt(state);
+            if (newState != state) {
+                this.palette = new SingletonPalette(newState);
+            }
+            return;
+        }
+        if (this.palette instanceof GlobalPalette) {
+            if (!(this.storage instanceof BitStorage)) {
+                this.storage.replaceAll(operator);
+                return;
+            }
+            // neighbouring entries are very often the same state
+            int[] last = {-1, -1};
+            this.storage = ((BitStorage) this.storage).replaceAll(state -> {
+                if (state != last[0]) {
+                    last[0] = state;
+                    last[1] = operator.applyAsInt(state);
+                }
+                return last[1];
+            }, globalBitsPerEntry);
+            return;
+        }
+
+        int[] states = this.getPaletteStates();
+        Palette newPalette = createPalette(this.storage.getBitsPerEntry(), this.paletteType);
+        int[] idMapping = new int[states.length];
+        boolean sameIds = true;
+        for (int id = 0; id < states.length; id++) {
+            int newId = newPalette.stateToId(operator.applyAsInt(states[id]));
+            idMapping[id] = newId;
+            sameIds &= newId == id;
+        }
+        this.palette = newPalette;
+        if (!sameIds) {
+            // some states have been merged, the new palette is smaller and fits into the same storage
+            this.storage.replaceAll(id -> id < idMapping.length ? idMapping[id] : id);
+        }
+    }
+
+    private int[] getPaletteStates() {
+        int[] states = new int[this.palette.size()];
+        for (int id = 0; id < states.length; id++) {
+            states[id] = this.palette.idToState(id);
+        }
+        return states;
+    }
+
     @Deprecated
     private static Palette readPalette(
             PaletteType paletteType,
@@ -27,8 +27,6 @@ package com.github.retrooper.packetevents.protocol.world.chunk.palette;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
-import java.util.HashMap;
-
 /**
  * A palette backed by a map.
  */
@@ -36,13 +34,15 @@ public class MapPalette implements Palette {
 
     private final int bits;
     private final int[] idToState;
-    // TODO: Can we use fastutils here?
-    private final HashMap<Object, Integer> stateToId = new HashMap<>();
+    // open addressing hash table with linear probing, holding palette id + 1 for each state (0 marks a free slot)
+    // the table is twice the size of the palette, so at least half of it is always free and lookups terminate
+    private final int[] stateToId;
     private int nextId = 0;
 
     public MapPalette(int bitsPerEntry) {
         this.bits = bitsPerEntry;
         this.idToState = new int[1 << bitsPerEntry];
+        this.stateToId = new int[2 << bitsPerEntry];
     }
 
     @Deprecated
@@ -53,7 +53,7 @@ public class MapPalette implements Palette {
         for (int i = 0; i < paletteLength; i++) {
             int state = in.readVarInt();
             this.idToState[i] = state;
-            this.stateToId.putIfAbsent(state, i);
+            this.putIfAbsent(state, i);
         }
         this.nextId = paletteLength;
     }
@@ -65,7 +65,7 @@ public class MapPalette implements Palette {
         for (int i = 0; i < paletteLength; i++) {
             int state = wrapper.readVarInt();
             this.idToState[i] = state;
-            this.stateToId.putIfAbsent(state, i);
+            this.putIfAbsent(state, i);
         }
         this.nextId = paletteLength;
     }
@@ -77,18 +77,44 @@ public class MapPalette implements Palette {
 
     @Override
     public int stateToId(int state) {
-        Integer id = this.stateToId.get(state);
-        if (id == null && this.size() < this.idToState.length) {
-            id = this.nextId++;
-            this.idToState[id] = state;
-            this.stateToId.put(state, id);
+        int slot = this.findSlot(state);
+        int entry = this.stateToId[slot];
+        if (entry != 0) {
+            return entry - 1;
         }
-
-        if (id != null) {
-            return id;
-        } else {
+        if (this.size() >= this.idToState.length) {
             return -1;
         }
+        int id = this.nextId++;
+        this.idToState[id] = state;
+        this.stateToId[slot] = id + 1;
+        return id;
+    }
+
+    private void putIfAbsent(int state, int id) {
+        int slot = this.findSlot(state);
+        if (this.stateToId[slot] == 0) {
+            this.stateToId[slot] = id + 1;
+        }
+    }
+
+    /**
+     * @return the slot holding the given state, or the free slot it would be inserted into
+     */
+    private int findSlot(int state) {
+        int mask = this.stateToId.length - 1;
+        int slot = mix(state) & mask;
+        int entry;
+        while ((entry = this.stateToId[slot]) != 0 && this.idToState[entry - 1] != state) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(int state) {
+        // states are mostly sequential, spread them over the table
+        int hash = state * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
     }
 
     @Override
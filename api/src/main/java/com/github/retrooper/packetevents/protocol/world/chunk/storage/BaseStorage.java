@@ -18,6 +18,9 @@
 
 package com.github.retrooper.packetevents.protocol.world.chunk.storage;
 
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
 public abstract class BaseStorage {
     public abstract long[] getData();
 
@@ -28,4 +31,22 @@ public abstract class BaseStorage {
     public abstract int get(int index);
 
     public abstract void set(int index, int value);
+
+    /**
+     * Passes every value of this storage to the consumer, in index order.
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0, len = this.getSize(); i < len; i++) {
+            consumer.accept(this.get(i));
+        }
+    }
+
+    /**
+     * Replaces every value of this storage with the result of the operator.
+     */
+    public void replaceAll(IntUnaryOperator operator) {
+        for (int i = 0, len = this.getSize(); i < len; i++) {
+            this.set(i, operator.applyAsInt(this.get(i)));
+        }
+    }
 }
@@ -24,6 +24,9 @@
 
 package com.github.retrooper.packetevents.protocol.world.chunk.storage;
 
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
 //TODO Equals & hashcode
 public class BitStorage extends BaseStorage {
     private static final int[] MAGIC_VALUES = {
@@ -130,6 +133,57 @@ public class BitStorage extends BaseStorage {
         this.data[cellIndex] = this.data[cellIndex] & ~(this.maxValue << bitIndex) | ((long) value & this.maxValue) << bitIndex;
     }
 
+    @Override
+    public void forEach(IntConsumer consumer) {
+        // walk the packed longs directly instead of looking up the cell of every index
+        int index = 0;
+        for (long cell : this.data) {
+            for (int i = 0; i < this.valuesPerLong && index < this.size; i++, index++) {
+                consumer.accept((int) (cell & this.maxValue));
+                cell >>>= this.bitsPerEntry;
+            }
+        }
+    }
+
+    @Override
+    public void replaceAll(IntUnaryOperator operator) {
+        int index = 0;
+        for (int cellIndex = 0; cellIndex < this.data.length; cellIndex++) {
+            long cell = this.data[cellIndex];
+            long newCell = 0L;
+            for (int i = 0; i < this.valuesPerLong && index < this.size; i++, index++) {
+                int bitIndex = i * this.bitsPerEntry;
+                int value = operator.applyAsInt((int) (cell >>> bitIndex & this.maxValue));
+                if (value < 0 || value > this.maxValue) {
+                    throw new IllegalStateException("Illegal value: " + value + " < 0 || " + value + " > " + this.maxValue);
+                }
+                newCell |= (long) value << bitIndex;
+            }
+            this.data[cellIndex] = newCell;
+        }
+    }
+
+    /**
+     * Replaces every value of this storage with the result of the operator, packed with the given bits per entry.
+     *
+     * @return this storage if the bits per entry are unchanged, otherwise a new storage holding the results
+     */
+    public BitStorage replaceAll(IntUnaryOperator operator, int bitsPerEntry) {
+        if (bitsPerEntry == this.bitsPerEntry) {
+            this.replaceAll(operator);
+            return this;
+        }
+        BitStorage storage = new BitStorage(bitsPerEntry, this.size);
+        int index = 0;
+        for (long cell : this.data) {
+            for (int i = 0; i < this.valuesPerLong && index < this.size; i++, index++) {
+                storage.set(index, operator.applyAsInt((int) (cell & this.maxValue)));
+                cell >>>= this.bitsPerEntry;
+            }
+        }
+        return storage;
+    }
+
     private int cellIndex(int index) {
         return (int) (index * this.divideMultiply + this.divideAdd >> 32 >> this.divideShift);
     }
@@ -36,16 +36,23 @@ import com.github.retrooper.packetevents.protocol.world.states.enums.West;
 import com.github.retrooper.packetevents.protocol.world.states.type.StateType;
 import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
 import com.github.retrooper.packetevents.protocol.world.states.type.StateValue;
+import com.github.retrooper.packetevents.util.mappings.IdRemapTable;
 import com.github.retrooper.packetevents.util.mappings.MappingHelper;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -84,6 +91,9 @@ public class WrappedBlockState {
     private static final String MAPPINGS_ASSETS_PREFIX = "mappings/data/block_state/";
     private static final String MAPPINGS_ASSETS_LEGACY = MAPPINGS_ASSETS_PREFIX + "legacy";
     private static final boolean PRELOAD_BLOCK_STATE_MAPPINGS = Boolean.getBoolean("packetevents.mappings.preload");
+    // "PEBS", has to match the snapshot written by the build
+    private static final int SNAPSHOT_MAGIC = 0x50454253;
+    private static final int SNAPSHOT_VERSION = 1;
 
     static {
         ClientVersion[] versions = ClientVersion.values();
@@ -106,10 +116,14 @@ public class WrappedBlockState {
     private static final WrappedBlockState AIR = new WrappedBlockState(StateTypes.AIR,
             new EnumMap<>(StateValue.class), 0, AIR_MAPPING_INDEX);
     private static final Map<String, WrappedBlockState>[] BY_STRING = new Map[HIGHEST_MAPPING_INDEX + 1];
-    private static final Map<Integer, WrappedBlockState>[] BY_ID = new Map[HIGHEST_MAPPING_INDEX + 1];
+    private static final WrappedBlockState[][] BY_ID = new WrappedBlockState[HIGHEST_MAPPING_INDEX + 1][];
+    // layout of the block type of each state by global id, null if the layout of the block type is unknown
+    private static final StateLayout[][] LAYOUTS = new StateLayout[HIGHEST_MAPPING_INDEX + 1][];
     private static final Map<WrappedBlockState, String>[] INTO_STRING = new Map[HIGHEST_MAPPING_INDEX + 1];
     private static final Map<WrappedBlockState, Integer>[] INTO_ID = new Map[HIGHEST_MAPPING_INDEX + 1];
     private static final Map<StateType, WrappedBlockState>[] DEFAULT_STATES = new Map[HIGHEST_MAPPING_INDEX + 1];
+    // lazily built, indexed by source and target mapping index
+    private static final IdRemapTable[][] REMAP_TABLES = new IdRemapTable[HIGHEST_MAPPING_INDEX + 1][HIGHEST_MAPPING_INDEX + 1];
 
     private static final Map<String, String> STRING_UPDATER = new HashMap<>();
 
@@ -117,7 +131,8 @@ public class WrappedBlockState {
         STRING_UPDATER.put("grass_path", "dirt_path"); // 1.16 -> 1.17
 
         Arrays.fill(BY_STRING, Collections.emptyMap());
-        Arrays.fill(BY_ID, Collections.emptyMap());
+        Arrays.fill(BY_ID, new WrappedBlockState[0]);
+        Arrays.fill(LAYOUTS, new StateLayout[0]);
         Arrays.fill(INTO_STRING, Collections.emptyMap());
         Arrays.fill(INTO_ID, Collections.emptyMap());
         Arrays.fill(DEFAULT_STATES, Collections.emptyMap());
@@ -125,7 +140,8 @@ public class WrappedBlockState {
         // because AIR is a constant, preload all data for this into a separate mapping index
         String airName = AIR.getType().getMapped().getName().getKey();
         BY_STRING[AIR_MAPPING_INDEX] = Collections.singletonMap(airName, AIR);
-        BY_ID[AIR_MAPPING_INDEX] = Collections.singletonMap(AIR.getGlobalId(), AIR);
+        AIR.canonical = true;
+        BY_ID[AIR_MAPPING_INDEX] = new WrappedBlockState[]{AIR};
         INTO_STRING[AIR_MAPPING_INDEX] = Collections.singletonMap(AIR, airName);
         INTO_ID[AIR_MAPPING_INDEX] = Collections.singletonMap(AIR, AIR.getGlobalId());
         DEFAULT_STATES[AIR_MAPPING_INDEX] = Collections.singletonMap(AIR.getType(), AIR);
@@ -136,6 +152,8 @@ public class WrappedBlockState {
     Map<StateValue, Object> data = new HashMap<>(0);
     boolean hasClonedData = false;
     byte mappingsIndex;
+    // shared instances held by the mappings, these may never be modified
+    private boolean canonical;
 
     @Deprecated
     public WrappedBlockState(StateType type, String[] data, int globalID, byte mappingsIndex) {
@@ -167,14 +185,14 @@ public class WrappedBlockState {
 
     private static byte loadMappings(ClientVersion version) {
         byte mappingsIndex = getMappingsIndex(version);
-        if (!PRELOAD_BLOCK_STATE_MAPPINGS && BY_ID[mappingsIndex].isEmpty()) {
+        if (!PRELOAD_BLOCK_STATE_MAPPINGS && BY_ID[mappingsIndex].length == 0) {
             loadMappings0(getMappingsVersion(version), mappingsIndex); // try to load mappings
         }
         return mappingsIndex;
     }
 
     private static synchronized void loadMappings0(ClientVersion version, byte mappingsIndex) {
-        if (!BY_ID[mappingsIndex].isEmpty()) {
+        if (BY_ID[mappingsIndex].length != 0) {
             return; // already loaded
         }
         PacketEvents.getAPI().getLogger().info("Loading block mappings for " + version + "/" + mappingsIndex + "...");
@@ -191,6 +209,35 @@ public class WrappedBlockState {
                 + version + "/" + mappingsIndex + " in " + timeDiff + "ms");
     }
 
+    /**
+     * @return The first client version of every modern mappings version, in ascending order
+     */
+    @VisibleForTesting
+    @ApiStatus.Internal
+    public static ClientVersion[] getModernMappingVersions() {
+        return MAPPING_VERSION_STEPS.clone();
+    }
+
+    /**
+     * Reads the modern mappings of the version from either the binary snapshot or the nbt mappings,
+     * without replacing the loaded mappings.
+     *
+     * @throws IllegalStateException if the snapshot is requested, but there is none for this version
+     */
+    @VisibleForTesting
+    @ApiStatus.Internal
+    public static MappingsBuilder readModernMappings(ClientVersion version, boolean snapshot) {
+        ClientVersion mappingsVersion = getMappingsVersion(version);
+        if (!snapshot) {
+            return loadModernNbt(buildStateDataCache(), mappingsVersion);
+        }
+        MappingsBuilder builder = loadModernSnapshot(buildStateDataCache(), mappingsVersion);
+        if (builder == null) {
+            throw new IllegalStateException("No block state snapshot for " + mappingsVersion);
+        }
+        return builder;
+    }
+
     private static Map<Map<StateValue, Object>, StateCacheValue> buildStateDataCache() {
         // Try to reduce memory footprint by re-using hashmaps when they are equal
         // We do this by setting the key to the NBTCompound of the data and the value to the data
@@ -205,12 +252,10 @@ public class WrappedBlockState {
 
         Map<Map<StateValue, Object>, StateCacheValue> cache = new HashMap<>();
         for (byte i = 0; i < HIGHEST_MAPPING_INDEX; i++) {
-            Map<Integer, WrappedBlockState> map = BY_ID[i];
-            if (map == null) {
-                continue; // not loaded yet
-            }
-            for (WrappedBlockState state : map.values()) {
-                cache.computeIfAbsent(state.data, StateCacheValue::new);
+            for (WrappedBlockState state : BY_ID[i]) {
+                if (state != null) {
+                    cache.computeIfAbsent(state.data, StateCacheValue::new);
+                }
             }
         }
         return cache;
@@ -298,12 +343,101 @@ public class WrappedBlockState {
 
     @NotNull
     public static WrappedBlockState getByGlobalId(ClientVersion version, int globalID, boolean clone) {
-        if (globalID == 0) return AIR; // Hardcode for performance
+        if (globalID == 0) return clone ? AIR.clone() : AIR; // Hardcode for performance
         byte mappingsIndex = loadMappings(version);
-        final WrappedBlockState state = BY_ID[mappingsIndex].getOrDefault(globalID, AIR);
+        final WrappedBlockState state = getById(mappingsIndex, globalID);
         return clone ? state.clone() : state;
     }
 
+    private static WrappedBlockState getById(byte mappingsIndex, int globalID) {
+        WrappedBlockState[] states = BY_ID[mappingsIndex];
+        WrappedBlockState state = globalID >= 0 && globalID < states.length ? states[globalID] : null;
+        return state != null ? state : AIR;
+    }
+
+    /**
+     * Returns a table which translates global ids of the source version into global ids of the target version.
+     * States which don't exist in the target version are translated to the default state of their block type,
+     * which drops all of their other properties, or to air if the block type doesn't exist either.
+     * <p>
+     * The table is built on first use and cached afterward, a whole chunk section can be remapped
+     * with {@link IdRemapTable#remapAll(com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette)}.
+     */
+    public static IdRemapTable getRemapTable(ClientVersion from, ClientVersion to) {
+        byte fromIndex = loadMappings(from);
+        byte toIndex = loadMappings(to);
+        // tables are immutable, building the same table twice on concurrent access is harmless
+        IdRemapTable table = REMAP_TABLES[fromIndex][toIndex];
+        if (table == null) {
+            REMAP_TABLES[fromIndex][toIndex] = table = buildRemapTable(fromIndex, toIndex);
+        }
+        return table;
+    }
+
+    private static IdRemapTable buildRemapTable(byte fromIndex, byte toIndex) {
+        WrappedBlockState[] states = BY_ID[fromIndex];
+        Map<WrappedBlockState, Integer> intoId = INTO_ID[toIndex];
+        Map<StateType, WrappedBlockState> defaultStates = DEFAULT_STATES[toIndex];
+        int[] ids = new int[states.length];
+        for (int id = 0; id < states.length; id++) {
+            WrappedBlockState state = states[id];
+            if (state == null) {
+                continue; // air
+            }
+            if (fromIndex == toIndex) {
+                ids[id] = id;
+                continue;
+            }
+            // equality only depends on the type and properties, so states of other versions can be looked up
+            Integer newId = intoId.get(state);
+            if (newId == null) {
+                // one of the properties doesn't exist in the target version, the other properties are not kept
+                WrappedBlockState defaultState = defaultStates.get(state.type);
+                newId = defaultState != null ? defaultState.globalID : 0;
+            }
+            ids[id] = newId;
+        }
+        return new IdRemapTable(ids, 0, BY_ID[toIndex].length);
+    }
+
+    /**
+     * Changes a property of a block state without creating or modifying any {@link WrappedBlockState}.
+     *
+     * @param globalID the global id of the block state
+     * @param property the property to change
+     * @param value    the new value of the property
+     * @return the global id of the changed block state, or the given global id if the block
+     * doesn't have this property or doesn't allow this value
+     */
+    public static int withProperty(int globalID, StateValue property, Object value) {
+        return withProperty(PacketEvents.getAPI().getServerManager().getVersion().toClientVersion(), globalID, property, value);
+    }
+
+    /**
+     * @see #withProperty(int, StateValue, Object)
+     */
+    public static int withProperty(ClientVersion version, int globalID, StateValue property, Object value) {
+        return withProperty(loadMappings(version), globalID, property, value);
+    }
+
+    private static int withProperty(byte mappingsIndex, int globalID, StateValue property, Object value) {
+        StateLayout[] layouts = LAYOUTS[mappingsIndex];
+        StateLayout layout = globalID >= 0 && globalID < layouts.length ? layouts[globalID] : null;
+        if (layout != null) {
+            int newGlobalID = layout.withProperty(globalID, property, value);
+            return newGlobalID != -1 ? newGlobalID : globalID;
+        }
+        // the layout is unknown (e.g. legacy versions), look up the state by its properties
+        WrappedBlockState state = getById(mappingsIndex, globalID);
+        if (!state.data.containsKey(property)) {
+            return globalID;
+        }
+        Map<StateValue, Object> data = new HashMap<>(state.data);
+        data.put(property, value);
+        Integer newGlobalID = INTO_ID[mappingsIndex].get(new WrappedBlockState(state.type, data, globalID, mappingsIndex));
+        return newGlobalID != null ? newGlobalID : globalID;
+    }
+
     @NotNull
     public static WrappedBlockState getByString(String string) {
         return getByString(PacketEvents.getAPI().getServerManager().getVersion().toClientVersion(), string);
@@ -425,7 +559,7 @@ public class WrappedBlockState {
                 }
             }
 
-            BY_ID[LEGACY_MAPPING_INDEX] = stateByIdMap;
+            BY_ID[LEGACY_MAPPING_INDEX] = toIdArray(stateByIdMap);
             INTO_ID[LEGACY_MAPPING_INDEX] = stateToIdMap;
             BY_STRING[LEGACY_MAPPING_INDEX] = stateByStringMap;
             INTO_STRING[LEGACY_MAPPING_INDEX] = stateToStringMap;
@@ -436,49 +570,94 @@ public class WrappedBlockState {
     }
 
     private static void loadModern(Map<Map<StateValue, Object>, StateCacheValue> cache, ClientVersion version) {
+        // prefer the binary snapshot generated at build time, custom resource providers may only ship nbt mappings
+        MappingsBuilder builder = loadModernSnapshot(cache, version);
+        if (builder == null) {
+            builder = loadModernNbt(cache, version);
+        }
+        builder.finish();
+    }
+
+    /**
+     * Loads the block state snapshot generated by the build. The snapshot contains a string pool,
+     * every distinct property combination of this version and the combination index of every state,
+     * so property values only have to be parsed once per combination instead of once per state.
+     *
+     * @return the read mappings, or null if there is no snapshot for this version
+     */
+    private static @Nullable MappingsBuilder loadModernSnapshot(Map<Map<StateValue, Object>, StateCacheValue> cache, ClientVersion version) {
+        byte[] snapshot = MappingHelper.readBinary(MAPPINGS_ASSETS_PREFIX + version.name());
+        if (snapshot == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readUnsignedByte() != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported block state snapshot format");
+            }
+            String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+            StateCacheValue[] combinations = new StateCacheValue[in.readInt()];
+            for (int i = 0; i < combinations.length; i++) {
+                int properties = in.readUnsignedShort();
+                if (properties == 0) {
+                    combinations[i] = StateCacheValue.EMPTY;
+                    continue;
+                }
+                Map<StateValue, Object> dataMap = new LinkedHashMap<>(3);
+                for (int j = 0; j < properties; j++) {
+                    String name = strings[in.readUnsignedShort()];
+                    String value = strings[in.readUnsignedShort()];
+                    StateValue state = StateValue.byName(name);
+                    if (state == null) {
+                        PacketEvents.getAPI().getLogger().warning("Could not find value for " + name);
+                        continue;
+                    }
+                    dataMap.put(state, state.getParser().apply(value.toUpperCase(Locale.ROOT)));
+                }
+                combinations[i] = cache.computeIfAbsent(dataMap, StateCacheValue::new);
+            }
+
+            int typeCount = in.readInt();
+            MappingsBuilder builder = new MappingsBuilder(getMappingsIndex(version), in.readInt());
+            List<StateCacheValue> typeStates = new ArrayList<>();
+            for (int i = 0; i < typeCount; i++) {
+                String typeString = strings[in.readUnsignedShort()];
+                int defaultIdx = in.readUnsignedShort();
+                int stateCount = in.readUnsignedShort();
+                for (int j = 0; j < stateCount; j++) {
+                    typeStates.add(combinations[in.readUnsignedShort()]);
+                }
+                builder.addType(typeString, defaultIdx, typeStates);
+                typeStates.clear();
+            }
+            return builder;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load block state snapshot for " + version, e);
+        }
+    }
+
+    private static MappingsBuilder loadModernNbt(Map<Map<StateValue, Object>, StateCacheValue> cache, ClientVersion version) {
         try (final SequentialNBTReader.Compound compound = MappingHelper.decompress(MAPPINGS_ASSETS_PREFIX + version.name())) {
             compound.skipOne(); // Skip version
 
-            byte mappingIndex = getMappingsIndex(version);
             SequentialNBTReader.List list = (SequentialNBTReader.List) compound.next().getValue();
-
-            Map<Integer, WrappedBlockState> stateByIdMap = new HashMap<>();
-            Map<WrappedBlockState, Integer> stateToIdMap = new HashMap<>();
-            Map<String, WrappedBlockState> stateByStringMap = new HashMap<>();
-            Map<WrappedBlockState, String> stateToStringMap = new HashMap<>();
-            Map<StateType, WrappedBlockState> stateTypeToBlockStateMap = new HashMap<>();
-
-            int id = 0;
+            MappingsBuilder builder = new MappingsBuilder(getMappingsIndex(version), 0);
+            List<StateCacheValue> typeStates = new ArrayList<>();
             for (NBT e : list) {
                 SequentialNBTReader.Compound element = (SequentialNBTReader.Compound) e;
                 String typeString = ((NBTString) element.next().getValue()).getValue(); // type
-                StateType type = StateTypes.getByName(typeString);
-                if (type == null) {
-                    // Let's update the state type to a modern version
-                    for (Map.Entry<String, String> stringEntry : STRING_UPDATER.entrySet()) {
-                        typeString = typeString.replace(stringEntry.getKey(), stringEntry.getValue());
-                    }
-
-                    type = StateTypes.getByName(typeString);
-
-                    if (type == null) {
-                        PacketEvents.getAPI().getLogger().warning("Unknown block type: " + typeString);
-                        element.skip();
-                        continue;
-                    }
-                }
-
                 Map.Entry<String, NBT> next = element.next(); // def
 
                 int defaultIdx = 0;
                 if (!next.getKey().equals("def")) {
-                    PacketEvents.getAPI().getLogger().warning("No default state for " + type + " using 0");
+                    PacketEvents.getAPI().getLogger().warning("No default state for " + typeString + " using 0");
                 } else {
                     defaultIdx = ((NBTNumber) next.getValue()).getAsInt();
                     next = element.next(); // entries
                 }
 
-                int index = 0;
                 for (NBT nbt : ((SequentialNBTReader.List) next.getValue())) {
                     SequentialNBTReader.Compound dataContent = (SequentialNBTReader.Compound) nbt;
                     StateCacheValue stateCache;
@@ -509,34 +688,30 @@ public class WrappedBlockState {
                     } else {
                         stateCache = StateCacheValue.EMPTY;
                     }
-
-                    String fullString = typeString + stateCache.getString();
-                    WrappedBlockState state = new WrappedBlockState(type, stateCache.map, id, mappingIndex);
-
-                    if (defaultIdx == index) {
-                        stateTypeToBlockStateMap.put(type, state);
-                    }
-
-                    stateByStringMap.put(fullString, state);
-                    stateByIdMap.put(id, state);
-                    stateToStringMap.put(state, fullString);
-                    stateToIdMap.put(state, id);
-
-                    id++;
-                    index++;
+                    typeStates.add(stateCache);
                 }
+                builder.addType(typeString, defaultIdx, typeStates);
+                typeStates.clear();
             }
-
-            BY_ID[mappingIndex] = stateByIdMap;
-            INTO_ID[mappingIndex] = stateToIdMap;
-            BY_STRING[mappingIndex] = stateByStringMap;
-            INTO_STRING[mappingIndex] = stateToStringMap;
-            DEFAULT_STATES[mappingIndex] = stateTypeToBlockStateMap;
+            return builder;
         } catch (IOException e) {
             throw new RuntimeException("Failed to load modern block mappings", e);
         }
     }
 
+    private static WrappedBlockState[] toIdArray(Map<Integer, WrappedBlockState> stateByIdMap) {
+        int maxId = -1;
+        for (int id : stateByIdMap.keySet()) {
+            maxId = Math.max(maxId, id);
+        }
+        WrappedBlockState[] states = new WrappedBlockState[maxId + 1];
+        for (Map.Entry<Integer, WrappedBlockState> entry : stateByIdMap.entrySet()) {
+            entry.getValue().canonical = true;
+            states[entry.getKey()] = entry.getValue();
+        }
+        return states;
+    }
+
     @Override
     public WrappedBlockState clone() {
         return new WrappedBlockState(type, data, globalID, mappingsIndex);
@@ -565,6 +740,22 @@ public class WrappedBlockState {
         return data.get(stateValue);
     }
 
+    /**
+     * Returns the block state with the given property changed, without modifying this state.
+     * <p>
+     * The returned state is the shared instance for its global id, just like states returned
+     * by {@link #getByGlobalId(ClientVersion, int, boolean)} without cloning. Its setters throw an
+     * {@link UnsupportedOperationException}, {@link #clone()} it first if you want to use them.
+     *
+     * @param property the property to change
+     * @param value    the new value of the property
+     * @return the changed block state, or the state with the same global id as this state if this
+     * block doesn't have this property or doesn't allow this value
+     */
+    public WrappedBlockState with(StateValue property, Object value) {
+        return getById(this.mappingsIndex, withProperty(this.mappingsIndex, this.globalID, property, value));
+    }
+
     public void setData(StateValue stateValue, Object object) {
         checkIfCloneNeeded();
         data.put(stateValue, object);
@@ -1535,6 +1726,10 @@ public class WrappedBlockState {
      * Cloning on every wrapped block state is too expensive.
      */
     private void checkIfCloneNeeded() {
+        if (canonical) {
+            throw new UnsupportedOperationException("Attempted to modify the shared block state " + this
+                    + ", clone() it first");
+        }
         if (!hasClonedData) {
             data = new HashMap<>(data);
             hasClonedData = true;
@@ -1551,7 +1746,7 @@ public class WrappedBlockState {
         int oldGlobalID = globalID;
         globalID = getGlobalIdNoCache();
         if (globalID == -1) { // -1 maps to no block as negative ID are impossible
-            WrappedBlockState blockState = BY_ID[this.mappingsIndex].getOrDefault(oldGlobalID, AIR).clone();
+            WrappedBlockState blockState = getById(this.mappingsIndex, oldGlobalID).clone();
             this.type = blockState.type;
             this.globalID = blockState.globalID;
             this.data = new HashMap<>(blockState.data);
@@ -1625,6 +1820,188 @@ public class WrappedBlockState {
         logger.info("Finish preloading block mappings in " + timeDiff + "ms");
     }
 
+    /**
+     * Describes how the global ids of all states of a block type are laid out.
+     * Vanilla creates a state for every combination of property values and assigns the ids in order,
+     * so the index of each property value is a digit of a mixed radix number added to the first id.
+     * This allows switching between states by simple arithmetic.
+     */
+    private static final class StateLayout {
+
+        private final int baseId;
+        private final StateValue[] properties;
+        private final Object[][] values;
+        private final int[] strides;
+
+        private StateLayout(int baseId, StateValue[] properties, Object[][] values, int[] strides) {
+            this.baseId = baseId;
+            this.properties = properties;
+            this.values = values;
+            this.strides = strides;
+        }
+
+        /**
+         * @param states all states of a block type, ordered by global id
+         * @return the layout of the states, or null if they are not laid out like vanilla does it
+         */
+        private static @Nullable StateLayout create(List<WrappedBlockState> states) {
+            int count = states.size();
+            Map<StateValue, Object> first = states.get(0).data;
+            StateValue[] properties = first.keySet().toArray(new StateValue[0]);
+            Object[][] values = new Object[properties.length][];
+            int[] strides = new int[properties.length];
+            long combinations = 1;
+            for (int i = 0; i < properties.length; i++) {
+                StateValue property = properties[i];
+                Object firstValue = first.get(property);
+                // the first state where this property changes tells how many states lie between two values
+                int stride = 1;
+                while (stride < count && Objects.equals(states.get(stride).data.get(property), firstValue)) {
+                    stride++;
+                }
+                List<Object> propertyValues = new ArrayList<>();
+                for (int j = 0; j < count; j += stride) {
+                    Object value = states.get(j).data.get(property);
+                    if (j != 0 && Objects.equals(value, firstValue)) {
+                        break;
+                    }
+                    propertyValues.add(value);
+                }
+                strides[i] = stride;
+                values[i] = propertyValues.toArray();
+                combinations *= values[i].length;
+            }
+            if (combinations != count) {
+                return null;
+            }
+            // verify every state is where this layout expects it to be
+            for (int j = 0; j < count; j++) {
+                Map<StateValue, Object> data = states.get(j).data;
+                if (data.size() != properties.length) {
+                    return null;
+                }
+                for (int i = 0; i < properties.length; i++) {
+                    Object expected = values[i][(j / strides[i]) % values[i].length];
+                    if (!Objects.equals(data.get(properties[i]), expected)) {
+                        return null;
+                    }
+                }
+            }
+            return new StateLayout(states.get(0).globalID, properties, values, strides);
+        }
+
+        /**
+         * @return the global id with the property changed, or -1 if the property or value is not part of this layout
+         */
+        private int withProperty(int globalID, StateValue property, Object value) {
+            for (int i = 0; i < this.properties.length; i++) {
+                if (this.properties[i] != property) {
+                    continue;
+                }
+                Object[] propertyValues = this.values[i];
+                for (int j = 0; j < propertyValues.length; j++) {
+                    if (propertyValues[j].equals(value)) {
+                        int current = ((globalID - this.baseId) / this.strides[i]) % propertyValues.length;
+                        return globalID + (j - current) * this.strides[i];
+                    }
+                }
+                return -1;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Collects the states of a modern mappings version, ids are assigned in the order the states are added.
+     */
+    @ApiStatus.Internal
+    public static final class MappingsBuilder {
+
+        private final byte mappingIndex;
+        private final List<WrappedBlockState> states;
+        private final List<StateLayout> layouts;
+        private final Map<WrappedBlockState, Integer> stateToIdMap;
+        private final Map<String, WrappedBlockState> stateByStringMap;
+        private final Map<WrappedBlockState, String> stateToStringMap;
+        private final Map<StateType, WrappedBlockState> stateTypeToBlockStateMap = new HashMap<>();
+
+        private MappingsBuilder(byte mappingIndex, int expectedStates) {
+            this.mappingIndex = mappingIndex;
+            // size the maps up front if the amount of states is known
+            int capacity = expectedStates <= 0 ? 16 : (int) (expectedStates / 0.75F) + 1;
+            this.states = new ArrayList<>(Math.max(expectedStates, 10));
+            this.layouts = new ArrayList<>(Math.max(expectedStates, 10));
+            this.stateToIdMap = new HashMap<>(capacity);
+            this.stateByStringMap = new HashMap<>(capacity);
+            this.stateToStringMap = new HashMap<>(capacity);
+        }
+
+        private void addType(String typeString, int defaultIdx, List<StateCacheValue> typeStates) {
+            int firstId = this.states.size();
+            StateType type = StateTypes.getByName(typeString);
+            if (type == null) {
+                // Let's update the state type to a modern version
+                for (Map.Entry<String, String> stringEntry : STRING_UPDATER.entrySet()) {
+                    typeString = typeString.replace(stringEntry.getKey(), stringEntry.getValue());
+                }
+
+                type = StateTypes.getByName(typeString);
+
+                if (type == null) {
+                    PacketEvents.getAPI().getLogger().warning("Unknown block type: " + typeString);
+                    return;
+                }
+            }
+
+            List<WrappedBlockState> wrappedStates = new ArrayList<>(typeStates.size());
+            for (int index = 0; index < typeStates.size(); index++) {
+                StateCacheValue stateCache = typeStates.get(index);
+                int id = firstId + index;
+                String fullString = typeString + stateCache.getString();
+                WrappedBlockState state = new WrappedBlockState(type, stateCache.map, id, this.mappingIndex);
+
+                if (defaultIdx == index) {
+                    this.stateTypeToBlockStateMap.put(type, state);
+                }
+
+                this.stateByStringMap.put(fullString, state);
+                this.stateToStringMap.put(state, fullString);
+                this.stateToIdMap.put(state, id);
+                wrappedStates.add(state);
+            }
+            StateLayout layout = StateLayout.create(wrappedStates);
+            for (WrappedBlockState state : wrappedStates) {
+                state.canonical = true;
+                this.states.add(state);
+                this.layouts.add(layout);
+            }
+        }
+
+        /**
+         * @return The states, indexed by their global id
+         */
+        public List<WrappedBlockState> getStates() {
+            return Collections.unmodifiableList(this.states);
+        }
+
+        public Map<WrappedBlockState, Integer> getStateToIdMap() {
+            return Collections.unmodifiableMap(this.stateToIdMap);
+        }
+
+        public Map<StateType, WrappedBlockState> getDefaultStates() {
+            return Collections.unmodifiableMap(this.stateTypeToBlockStateMap);
+        }
+
+        private void finish() {
+            LAYOUTS[this.mappingIndex] = this.layouts.toArray(new StateLayout[0]);
+            BY_ID[this.mappingIndex] = this.states.toArray(new WrappedBlockState[0]);
+            INTO_ID[this.mappingIndex] = this.stateToIdMap;
+            BY_STRING[this.mappingIndex] = this.stateByStringMap;
+            INTO_STRING[this.mappingIndex] = this.stateToStringMap;
+            DEFAULT_STATES[this.mappingIndex] = this.stateTypeToBlockStateMap;
+        }
+    }
+
     private static final class StateCacheValue {
 
         public static final StateCacheValue EMPTY = new StateCacheValue(Collections.emptyMap());
@@ -18,10 +18,17 @@
 
 package com.github.retrooper.packetevents.settings;
 
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.util.PacketRateLimiter;
 import com.github.retrooper.packetevents.util.TimeStampMode;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.ApiStatus;
 
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -40,6 +47,11 @@ public class PacketEventsSettings {
     private boolean fullStackTraceEnabled = false;
     private boolean kickOnPacketExceptionEnabled = true;
     private boolean kickIfTerminated = true;
+    private boolean skipUnlistenedPackets = true;
+    private boolean recycleEvents = false;
+    private Set<PacketTypeCommon> asyncPacketTypes = Collections.emptySet();
+    private int asyncProcessingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private @Nullable PacketRateLimiter packetRateLimiter = null;
     private Function<String, InputStream> resourceProvider = path -> PacketEventsSettings.class
             .getClassLoader()
             .getResourceAsStream(path);
@@ -152,6 +164,76 @@ public class PacketEventsSettings {
         return this;
     }
 
+    /**
+     * This decides if PacketEvents should pass on packets without creating an event,
+     * if none of the registered listeners are interested in their packet type.
+     *
+     * @param skipUnlistenedPackets Value
+     * @return Settings instance.
+     */
+    @ApiStatus.Internal
+    public PacketEventsSettings skipUnlistenedPackets(boolean skipUnlistenedPackets) {
+        this.skipUnlistenedPackets = skipUnlistenedPackets;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should reuse packet events of a user instead of creating a new
+     * event for every packet. Listeners must not keep a reference to an event after they return,
+     * {@link com.github.retrooper.packetevents.event.ProtocolPacketEvent#clone()} the event if it is needed later.
+     *
+     * @param recycleEvents Value
+     * @return Settings instance.
+     */
+    @ApiStatus.Internal
+    public PacketEventsSettings recycleEvents(boolean recycleEvents) {
+        this.recycleEvents = recycleEvents;
+        return this;
+    }
+
+    /**
+     * Outgoing packets of these types are processed on a separate thread pool instead of the netty event loop,
+     * the order in which packets are sent stays the same. Listeners of these packet types will be called
+     * off the event loop and have to be thread-safe.
+     * This is currently only supported on spigot.
+     *
+     * @param asyncPacketTypes Value
+     * @return Settings instance.
+     */
+    @ApiStatus.Internal
+    public PacketEventsSettings asyncPacketTypes(PacketTypeCommon... asyncPacketTypes) {
+        this.asyncPacketTypes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(asyncPacketTypes)));
+        return this;
+    }
+
+    /**
+     * Amount of threads used to process the packets configured with {@link #asyncPacketTypes(PacketTypeCommon...)}.
+     *
+     * @param asyncProcessingThreads Value
+     * @return Settings instance.
+     */
+    @ApiStatus.Internal
+    public PacketEventsSettings asyncProcessingThreads(int asyncProcessingThreads) {
+        if (asyncProcessingThreads < 1) {
+            throw new IllegalArgumentException("At least one async processing thread is required");
+        }
+        this.asyncProcessingThreads = asyncProcessingThreads;
+        return this;
+    }
+
+    /**
+     * Limits the packets clients may send, before any event or wrapper is created for them.
+     * Null disables the limiter.
+     *
+     * @param packetRateLimiter Value
+     * @return Settings instance.
+     */
+    @ApiStatus.Internal
+    public PacketEventsSettings packetRateLimiter(@Nullable PacketRateLimiter packetRateLimiter) {
+        this.packetRateLimiter = packetRateLimiter;
+        return this;
+    }
+
     /**
      * Some projects may want to implement a CDN with resources like asset mappings
      * By default, all resources are retrieved from the ClassLoader
@@ -241,6 +323,51 @@ public class PacketEventsSettings {
         return kickIfTerminated;
     }
 
+    /**
+     * Should packetevents pass on packets which no listener is interested in without creating an event?
+     *
+     * @return Getter for {@link #skipUnlistenedPackets}
+     */
+    public boolean shouldSkipUnlistenedPackets() {
+        return skipUnlistenedPackets;
+    }
+
+    /**
+     * Should packetevents reuse the packet events of a user?
+     *
+     * @return Getter for {@link #recycleEvents}
+     */
+    public boolean shouldRecycleEvents() {
+        return recycleEvents;
+    }
+
+    /**
+     * Which outgoing packet types should be processed off the netty event loop?
+     *
+     * @return Getter for {@link #asyncPacketTypes}
+     */
+    public Set<PacketTypeCommon> getAsyncPacketTypes() {
+        return asyncPacketTypes;
+    }
+
+    /**
+     * How many threads should process the async packet types?
+     *
+     * @return Getter for {@link #asyncProcessingThreads}
+     */
+    public int getAsyncProcessingThreads() {
+        return asyncProcessingThreads;
+    }
+
+    /**
+     * Which limits should be applied to the packets clients send?
+     *
+     * @return Getter for {@link #packetRateLimiter}
+     */
+    public @Nullable PacketRateLimiter getPacketRateLimiter() {
+        return packetRateLimiter;
+    }
+
     /**
      * As described above, this method retrieves the function that acquires the InputStream
      * of a desired resource by its path.
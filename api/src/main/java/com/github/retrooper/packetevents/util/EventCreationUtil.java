@@ -18,15 +18,32 @@
 
 package com.github.retrooper.packetevents.util;
 
+import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.event.simple.*;
 import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 
 public class EventCreationUtil {
+    private static final int CONNECTION_STATES = ConnectionState.values().length;
+
     public static PacketReceiveEvent createReceiveEvent(Object channel, User user, Object player, Object buffer,
                                                         boolean autoProtocolTranslation) throws PacketProcessException {
+        if (PacketEvents.getAPI().getSettings().shouldRecycleEvents()) {
+            ProtocolPacketEvent[] recycledEvents = user.getRecycledEvents();
+            int index = recycledIndex(PacketSide.CLIENT, user.getDecoderState());
+            PacketReceiveEvent event = (PacketReceiveEvent) recycledEvents[index];
+            if (event != null) {
+                // take the event out of the pool, events created while this one is processed are allocated
+                recycledEvents[index] = null;
+                event.reload(channel, user, player, buffer, autoProtocolTranslation);
+                return event;
+            }
+        }
         switch (user.getDecoderState()) {
             case HANDSHAKING:
                 return new PacketHandshakeReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -43,7 +60,26 @@ public class EventCreationUtil {
     }
 
     public static PacketSendEvent createSendEvent(Object channel, User user, Object player, Object buffer,
-                                                  boolean autoProtocolTranslation) throws PacketProcessException{
+                                                  boolean autoProtocolTranslation) throws PacketProcessException {
+        return createSendEvent(channel, user, player, buffer, autoProtocolTranslation, true);
+    }
+
+    /**
+     * @param recycle whether the event may be taken from the recycled events of the user,
+     *                this must be false if the event is not created on the event loop of the user
+     */
+    public static PacketSendEvent createSendEvent(Object channel, User user, Object player, Object buffer,
+                                                  boolean autoProtocolTranslation, boolean recycle) throws PacketProcessException {
+        if (recycle && PacketEvents.getAPI().getSettings().shouldRecycleEvents()) {
+            ProtocolPacketEvent[] recycledEvents = user.getRecycledEvents();
+            int index = recycledIndex(PacketSide.SERVER, user.getEncoderState());
+            PacketSendEvent event = (PacketSendEvent) recycledEvents[index];
+            if (event != null) {
+                recycledEvents[index] = null;
+                event.reload(channel, user, player, buffer, autoProtocolTranslation);
+                return event;
+            }
+        }
         switch (user.getEncoderState()) {
             case HANDSHAKING:
                 return new PacketHandshakeSendEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -58,4 +94,21 @@ public class EventCreationUtil {
         }
         throw new RuntimeException("Unknown connection state " + user.getEncoderState() + "!");
     }
+
+    /**
+     * Hands the event back to the user, so it can be reused for the next packet in the same direction
+     * and connection state if event recycling is enabled.
+     * The event stays valid until the next packet of this user is processed on the same event loop.
+     */
+    public static void recycleEvent(User user, ProtocolPacketEvent event) {
+        if (event.isClone() || !PacketEvents.getAPI().getSettings().shouldRecycleEvents()) {
+            return;
+        }
+        PacketSide side = event instanceof PacketSendEvent ? PacketSide.SERVER : PacketSide.CLIENT;
+        user.getRecycledEvents()[recycledIndex(side, event.getConnectionState())] = event;
+    }
+
+    private static int recycledIndex(PacketSide side, ConnectionState state) {
+        return side.ordinal() * CONNECTION_STATES + state.ordinal();
+    }
 }
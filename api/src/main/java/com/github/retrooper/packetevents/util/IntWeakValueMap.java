@@ -0,0 +1,302 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe map from primitive int keys to weakly referenced values,
+ * using open addressing with linear probing to avoid boxing the keys.
+ * <p>
+ * Lookups don't lock, they read the table optimistically and only fall back to a read lock
+ * if it has been modified meanwhile. Entries whose value got garbage collected are removed
+ * when they are looked up and when the table grows.
+ */
+@ApiStatus.Internal
+public final class IntWeakValueMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private int[] keys;
+    private @Nullable WeakReference<V>[] values;
+    private int size;
+
+    public IntWeakValueMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntWeakValueMap(int expectedSize) {
+        this.allocate(tableSize(expectedSize));
+    }
+
+    private static int tableSize(int expectedSize) {
+        // keep the load factor at or below 0.5
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize) * 2 - 1) << 1;
+        return Math.max(MIN_CAPACITY, capacity);
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new WeakReference[capacity];
+    }
+
+    private static <V> @Nullable WeakReference<V> find(int[] keys, @Nullable WeakReference<V>[] values, int key) {
+        // the arrays may be read while they are modified, so make sure not to run off or loop forever
+        if (keys.length != values.length) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask, probes = 0; probes < keys.length; i = (i + 1) & mask, probes++) {
+            WeakReference<V> ref = values[i];
+            if (ref == null) {
+                return null;
+            }
+            if (keys[i] == key) {
+                return ref;
+            }
+        }
+        return null;
+    }
+
+    public @Nullable V get(int key) {
+        long stamp = this.lock.tryOptimisticRead();
+        WeakReference<V> ref = find(this.keys, this.values, key);
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                ref = find(this.keys, this.values, key);
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+        if (ref == null) {
+            return null;
+        }
+        V value = ref.get();
+        if (value == null) {
+            this.removeCollected(key, ref);
+        }
+        return value;
+    }
+
+    private void removeCollected(int key, WeakReference<V> collected) {
+        long stamp = this.lock.writeLock();
+        try {
+            int index = this.indexOf(key);
+            // the entry may have been replaced meanwhile
+            if (index != -1 && this.values[index] == collected) {
+                this.removeAt(index);
+            }
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    public void put(int key, V value) {
+        long stamp = this.lock.writeLock();
+        try {
+            int mask = this.keys.length - 1;
+            int i = mix(key) & mask;
+            for (WeakReference<V> ref; (ref = this.values[i]) != null; i = (i + 1) & mask) {
+                if (this.keys[i] == key) {
+                    if (ref.get() != value) {
+                        this.values[i] = new WeakReference<>(value);
+                    }
+                    return;
+                }
+            }
+            this.keys[i] = key;
+            this.values[i] = new WeakReference<>(value);
+            if (++this.size * 2 > this.keys.length) {
+                this.rehash();
+            }
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    public @Nullable V remove(int key) {
+        long stamp = this.lock.writeLock();
+        try {
+            int index = this.indexOf(key);
+            if (index == -1) {
+                return null;
+            }
+            WeakReference<V> ref = this.values[index];
+            this.removeAt(index);
+            return ref.get();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return Amount of entries, including those whose value got collected but which haven't been removed yet
+     */
+    public int size() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.size;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = this.lock.writeLock();
+        try {
+            Arrays.fill(this.values, null);
+            this.size = 0;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns a {@link Map} view of this map, for code which still expects boxed keys.
+     * Iterating over it iterates over a snapshot of the live entries.
+     */
+    public Map<Integer, V> asMap() {
+        return new MapView();
+    }
+
+    private int indexOf(int key) {
+        int mask = this.keys.length - 1;
+        for (int i = mix(key) & mask; this.values[i] != null; i = (i + 1) & mask) {
+            if (this.keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        // shift following entries of the probe sequence back instead of leaving a tombstone
+        int mask = this.keys.length - 1;
+        int gap = index;
+        for (int i = (index + 1) & mask; this.values[i] != null; i = (i + 1) & mask) {
+            int home = mix(this.keys[i]) & mask;
+            // move the entry if its home slot is not cyclically within (gap, i]
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                this.keys[gap] = this.keys[i];
+                this.values[gap] = this.values[i];
+                gap = i;
+            }
+        }
+        this.values[gap] = null;
+        this.size--;
+    }
+
+    private void rehash() {
+        int[] oldKeys = this.keys;
+        WeakReference<V>[] oldValues = this.values;
+        // count live entries first, the table may not need to grow after dropping collected values
+        int live = 0;
+        for (WeakReference<V> ref : oldValues) {
+            if (ref != null && ref.get() != null) {
+                live++;
+            }
+        }
+        this.allocate(tableSize(live + 1));
+        this.size = 0;
+        int mask = this.keys.length - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            WeakReference<V> ref = oldValues[j];
+            if (ref == null || ref.get() == null) {
+                continue;
+            }
+            int i = mix(oldKeys[j]) & mask;
+            while (this.values[i] != null) {
+                i = (i + 1) & mask;
+            }
+            this.keys[i] = oldKeys[j];
+            this.values[i] = ref;
+            this.size++;
+        }
+    }
+
+    private final class MapView extends AbstractMap<Integer, V> {
+
+        @Override
+        public @Nullable V get(Object key) {
+            return key instanceof Integer ? IntWeakValueMap.this.get((Integer) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return this.get(key) != null;
+        }
+
+        @Override
+        public @Nullable V put(Integer key, V value) {
+            V previous = IntWeakValueMap.this.get(key);
+            IntWeakValueMap.this.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public @Nullable V remove(Object key) {
+            return key instanceof Integer ? IntWeakValueMap.this.remove((Integer) key) : null;
+        }
+
+        @Override
+        public int size() {
+            return IntWeakValueMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            IntWeakValueMap.this.clear();
+        }
+
+        @Override
+        public Set<Entry<Integer, V>> entrySet() {
+            Set<Entry<Integer, V>> entries = new HashSet<>();
+            long stamp = IntWeakValueMap.this.lock.readLock();
+            try {
+                for (int i = 0; i < IntWeakValueMap.this.values.length; i++) {
+                    WeakReference<V> ref = IntWeakValueMap.this.values[i];
+                    V value = ref == null ? null : ref.get();
+                    if (value != null) {
+                        entries.add(new SimpleImmutableEntry<>(IntWeakValueMap.this.keys[i], value));
+                    }
+                }
+            } finally {
+                IntWeakValueMap.this.lock.unlockRead(stamp);
+            }
+            return entries;
+        }
+    }
+}
@@ -23,9 +23,14 @@ import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.event.UserDisconnectEvent;
+import com.github.retrooper.packetevents.manager.metrics.PacketMetrics;
 import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
 import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import org.jetbrains.annotations.Nullable;
 
@@ -47,20 +52,107 @@ public final class PacketEventsImplHelper {
         }
     }
 
+    /**
+     * Peeks at the packet id of the buffer and checks whether any listener is interested in this packet.
+     * This neither allocates anything nor modifies the reader index of the buffer, so packets
+     * no listener is interested in can be passed on untouched.
+     *
+     * @return Whether an event has to be created for this packet
+     */
+    public static boolean isPacketListened(
+            User user, Object buffer,
+            boolean autoProtocolTranslation, PacketSide side
+    ) {
+        if (!PacketEvents.getAPI().getSettings().shouldSkipUnlistenedPackets()) {
+            return true;
+        }
+        int packetId = ByteBufHelper.peekVarInt(buffer);
+        if (packetId == -1) {
+            return true; // let the event creation handle malformed packet ids
+        }
+        ClientVersion version = resolveVersion(user, autoProtocolTranslation);
+        ConnectionState state = side == PacketSide.CLIENT ? user.getDecoderState() : user.getEncoderState();
+        return PacketEvents.getAPI().getEventManager().hasListeners(side, state, version, packetId);
+    }
+
+    // resolve the version the same way as ProtocolPacketEvent does
+    private static ClientVersion resolveVersion(User user, boolean autoProtocolTranslation) {
+        if (autoProtocolTranslation || user.getClientVersion() == null) {
+            return PacketEvents.getAPI().getServerManager().getVersion().toClientVersion();
+        }
+        return user.getClientVersion().toServerVersion().toClientVersion();
+    }
+
+    /**
+     * Checks the incoming packet against the configured {@link PacketRateLimiter}, if there is one.
+     * This has to be called by every platform decoder before anything is decoded;
+     * packets exceeding a limit have to be dropped by the caller.
+     *
+     * @return Whether the packet may be processed
+     */
+    public static boolean isWithinLimits(User user, Object buffer, boolean autoProtocolTranslation) {
+        PacketRateLimiter rateLimiter = PacketEvents.getAPI().getSettings().getPacketRateLimiter();
+        if (rateLimiter == null) {
+            return true;
+        }
+        int packetId = ByteBufHelper.peekVarInt(buffer);
+        PacketTypeCommon packetType = packetId == -1 ? null : PacketType.getById(PacketSide.CLIENT,
+                user.getDecoderState(), resolveVersion(user, autoProtocolTranslation), packetId);
+        if (rateLimiter.tryAcquire(user, packetType, ByteBufHelper.readableBytes(buffer))) {
+            return true;
+        }
+        rateLimiter.handleExceeded(user, packetType);
+        return false;
+    }
+
+    /**
+     * Counts the packet in the {@link PacketMetrics} if they are enabled. Every packet passing through
+     * is counted, including the ones no listener is interested in, so platform handlers which don't go
+     * through {@link #handlePacket} have to call this themselves.
+     */
+    public static void recordPacket(
+            User user, Object buffer,
+            boolean autoProtocolTranslation, PacketSide side
+    ) {
+        PacketMetrics metrics = PacketEvents.getAPI().getEventManager().getMetrics();
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        int packetId = ByteBufHelper.peekVarInt(buffer);
+        if (packetId == -1) {
+            return;
+        }
+        ConnectionState state = side == PacketSide.CLIENT ? user.getDecoderState() : user.getEncoderState();
+        ClientVersion version = resolveVersion(user, autoProtocolTranslation);
+        metrics.recordPacket(state, PacketType.getById(side, state, version, packetId), ByteBufHelper.readableBytes(buffer));
+    }
+
     public static @Nullable PacketSendEvent handleClientBoundPacket(
             Object channel, User user, Object player, Object buffer,
             boolean autoProtocolTranslation
+    ) throws Exception {
+        return handleClientBoundPacket(channel, user, player, buffer, autoProtocolTranslation, true);
+    }
+
+    /**
+     * @param recycle whether the event may be reused for following packets of the user,
+     *                this must be false if the packet is not processed on the event loop of the user
+     */
+    public static @Nullable PacketSendEvent handleClientBoundPacket(
+            Object channel, User user, Object player, Object buffer,
+            boolean autoProtocolTranslation, boolean recycle
     ) throws Exception {
         if (!ByteBufHelper.isReadable(buffer)) {
             return null;
         }
+        recordPacket(user, buffer, autoProtocolTranslation, PacketSide.SERVER);
+        if (!isPacketListened(user, buffer, autoProtocolTranslation, PacketSide.SERVER)) {
+            return null;
+        }
 
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
-        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(channel, user, player, buffer, autoProtocolTranslation);
-        int processIndex = ByteBufHelper.readerIndex(buffer);
-        PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> {
-            ByteBufHelper.readerIndex(buffer, processIndex);
-        });
+        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(channel, user, player, buffer, autoProtocolTranslation, recycle);
+        PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, packetSendEvent.getReaderIndexRestorer());
         if (!packetSendEvent.isCancelled()) {
             //Did they ever use a wrapper?
             if (packetSendEvent.getLastUsedWrapper() != null) {
@@ -83,7 +175,9 @@ public final class PacketEventsImplHelper {
                 task.run();
             }
         }
-
+        if (recycle) {
+            EventCreationUtil.recycleEvent(user, packetSendEvent);
+        }
         return packetSendEvent;
     }
 
@@ -94,13 +188,19 @@ public final class PacketEventsImplHelper {
         if (!ByteBufHelper.isReadable(buffer)) {
             return null;
         }
+        recordPacket(user, buffer, autoProtocolTranslation, PacketSide.CLIENT);
+        if (!isWithinLimits(user, buffer, autoProtocolTranslation)) {
+            // drop the packet before anything gets decoded
+            ByteBufHelper.clear(buffer);
+            return null;
+        }
+        if (!isPacketListened(user, buffer, autoProtocolTranslation, PacketSide.CLIENT)) {
+            return null;
+        }
 
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
         PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
-        int processIndex = ByteBufHelper.readerIndex(buffer);
-        PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> {
-            ByteBufHelper.readerIndex(buffer, processIndex);
-        });
+        PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, packetReceiveEvent.getReaderIndexRestorer());
         if (!packetReceiveEvent.isCancelled()) {
             //Did they ever use a wrapper?
             if (packetReceiveEvent.getLastUsedWrapper() != null) {
@@ -122,6 +222,7 @@ public final class PacketEventsImplHelper {
                 task.run();
             }
         }
+        EventCreationUtil.recycleEvent(user, packetReceiveEvent);
         return packetReceiveEvent;
     }
 
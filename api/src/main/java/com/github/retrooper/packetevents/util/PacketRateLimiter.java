@@ -0,0 +1,251 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.User;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the incoming packets of every connection before any event or wrapper is created for them.
+ * Uses token buckets for the whole connection and for single packet types,
+ * and an upper bound on the size of packets of a packet type.
+ * Packets exceeding a limit are dropped or the connection gets closed, depending on the {@link Action}.
+ * <p>
+ * The limiter has to be fully configured before it is passed to
+ * {@link com.github.retrooper.packetevents.settings.PacketEventsSettings#packetRateLimiter(PacketRateLimiter)},
+ * its limits can't be changed anymore once the first connection has been checked.
+ */
+public class PacketRateLimiter {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private Action action = Action.KICK;
+    private @Nullable Limit connectionLimit;
+    private final Map<PacketTypeCommon, Limit> limits = new HashMap<>();
+    // set once the first connection state has been created, the buckets of a state are sized by the limits
+    private volatile boolean inUse;
+
+    /**
+     * What happens to packets exceeding a limit.
+     *
+     * @param action Value
+     * @return Limiter instance.
+     */
+    public PacketRateLimiter action(Action action) {
+        this.action = action;
+        return this;
+    }
+
+    /**
+     * Limits the amount of packets of a connection regardless of their type.
+     *
+     * @param packetsPerSecond Amount of packets a connection may send per second on average
+     * @param burst            Amount of packets a connection may send at once
+     * @return Limiter instance.
+     * @throws IllegalStateException if the limiter is already in use
+     */
+    public PacketRateLimiter connectionLimit(double packetsPerSecond, double burst) {
+        this.checkNotInUse();
+        this.connectionLimit = new Limit(-1, packetsPerSecond, burst, Integer.MAX_VALUE);
+        return this;
+    }
+
+    /**
+     * Limits the amount of packets of the given type a connection may send.
+     *
+     * @param packetType       Type of a packet sent by the client
+     * @param packetsPerSecond Amount of packets of this type a connection may send per second on average
+     * @param burst            Amount of packets of this type a connection may send at once
+     * @return Limiter instance.
+     * @throws IllegalStateException if the limiter is already in use
+     */
+    public PacketRateLimiter limit(PacketTypeCommon packetType, double packetsPerSecond, double burst) {
+        Limit limit = this.getLimit(packetType);
+        this.limits.put(packetType, new Limit(limit.index, packetsPerSecond, burst, limit.maxBytes));
+        return this;
+    }
+
+    /**
+     * Limits the size of packets of the given type, including the packet id.
+     *
+     * @param packetType Type of a packet sent by the client
+     * @param maxBytes   Maximum size of a packet of this type
+     * @return Limiter instance.
+     * @throws IllegalStateException if the limiter is already in use
+     */
+    public PacketRateLimiter maxBytes(PacketTypeCommon packetType, int maxBytes) {
+        Limit limit = this.getLimit(packetType);
+        this.limits.put(packetType, new Limit(limit.index, limit.packetsPerSecond, limit.burst, maxBytes));
+        return this;
+    }
+
+    private Limit getLimit(PacketTypeCommon packetType) {
+        if (packetType.getSide() != PacketSide.CLIENT) {
+            throw new IllegalArgumentException("Only packets sent by the client can be limited: " + packetType);
+        }
+        this.checkNotInUse();
+        Limit limit = this.limits.get(packetType);
+        return limit != null ? limit : new Limit(this.limits.size(), 0D, 0D, Integer.MAX_VALUE);
+    }
+
+    private void checkNotInUse() {
+        if (this.inUse) {
+            throw new IllegalStateException("The limits can't be changed once the limiter is in use");
+        }
+    }
+
+    public Action getAction() {
+        return this.action;
+    }
+
+    /**
+     * Checks whether the packet is within all limits and consumes a token of the buckets of its connection.
+     * Has to be called from the event loop of the connection.
+     *
+     * @param packetType Type of the packet, null if the packet id is unknown
+     * @param bytes      Size of the packet, including the packet id
+     * @return Whether the packet may be processed
+     */
+    @ApiStatus.Internal
+    public boolean tryAcquire(User user, @Nullable PacketTypeCommon packetType, int bytes) {
+        return this.tryAcquire(user, packetType, bytes, System.nanoTime());
+    }
+
+    @VisibleForTesting
+    @ApiStatus.Internal
+    public boolean tryAcquire(User user, @Nullable PacketTypeCommon packetType, int bytes, long now) {
+        State state = user.getRateLimitState(this);
+        if (this.connectionLimit != null && !state.connectionBucket.tryAcquire(this.connectionLimit, now)) {
+            return false;
+        }
+        Limit limit = packetType == null ? null : this.limits.get(packetType);
+        if (limit == null) {
+            return true;
+        }
+        if (bytes > limit.maxBytes) {
+            return false;
+        }
+        return limit.burst <= 0D || state.buckets[limit.index].tryAcquire(limit, now);
+    }
+
+    /**
+     * Handles a packet which exceeded a limit. The packet gets dropped by the caller in any case.
+     */
+    @ApiStatus.Internal
+    public void handleExceeded(User user, @Nullable PacketTypeCommon packetType) {
+        if (this.action != Action.KICK) {
+            return;
+        }
+        State state = user.getRateLimitState(this);
+        if (state.kicked) {
+            return;
+        }
+        state.kicked = true;
+        PacketEvents.getAPI().getLogManager().warn("Disconnected " + user.getProfile().getName()
+                + " for exceeding the packet limits" + (packetType != null ? " (" + packetType.getName() + ")" : ""));
+        user.closeConnection();
+    }
+
+    @ApiStatus.Internal
+    public State createState() {
+        this.inUse = true;
+        return new State(this);
+    }
+
+    public enum Action {
+        /**
+         * Silently drop packets exceeding a limit.
+         */
+        DROP,
+        /**
+         * Drop packets exceeding a limit and close the connection.
+         */
+        KICK
+    }
+
+    private static final class Limit {
+
+        private final int index;
+        private final double packetsPerSecond;
+        private final double burst;
+        private final int maxBytes;
+
+        private Limit(int index, double packetsPerSecond, double burst, int maxBytes) {
+            this.index = index;
+            this.packetsPerSecond = packetsPerSecond;
+            this.burst = burst;
+            this.maxBytes = maxBytes;
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens = -1D;
+        private long lastRefill;
+
+        private boolean tryAcquire(Limit limit, long now) {
+            if (this.tokens < 0D) {
+                // start with a full bucket
+                this.tokens = limit.burst;
+            } else {
+                double refill = (now - this.lastRefill) / NANOS_PER_SECOND * limit.packetsPerSecond;
+                this.tokens = Math.min(limit.burst, this.tokens + refill);
+            }
+            this.lastRefill = now;
+            if (this.tokens < 1D) {
+                return false;
+            }
+            this.tokens -= 1D;
+            return true;
+        }
+    }
+
+    /**
+     * Token buckets of a single connection.
+     */
+    @ApiStatus.Internal
+    public static final class State {
+
+        private final PacketRateLimiter limiter;
+        private final Bucket connectionBucket = new Bucket();
+        private final Bucket[] buckets;
+        private boolean kicked;
+
+        private State(PacketRateLimiter limiter) {
+            this.limiter = limiter;
+            this.buckets = new Bucket[limiter.limits.size()];
+            for (int i = 0; i < this.buckets.length; i++) {
+                this.buckets[i] = new Bucket();
+            }
+        }
+
+        public PacketRateLimiter getLimiter() {
+            return this.limiter;
+        }
+    }
+}
@@ -23,6 +23,8 @@ import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 public class VersionMapper {
     private final ClientVersion[] versions;
     private final ClientVersion[] reversedVersions;
+    // resolved indices, indexed by the ordinal of each client version
+    private final int[] indices;
 
     public VersionMapper(ClientVersion... versions) {
         this.versions = versions;
@@ -32,6 +34,11 @@ public class VersionMapper {
             reversedVersions[index] = versions[i];
             index++;
         }
+        ClientVersion[] clientVersions = ClientVersion.values();
+        this.indices = new int[clientVersions.length];
+        for (ClientVersion version : clientVersions) {
+            this.indices[version.ordinal()] = this.resolveIndex(version);
+        }
     }
 
     public ClientVersion[] getVersions() {
@@ -43,6 +50,10 @@ public class VersionMapper {
     }
 
     public int getIndex(ClientVersion version) {
+        return this.indices[version.ordinal()];
+    }
+
+    private int resolveIndex(ClientVersion version) {
         int index = reversedVersions.length - 1;
         for (ClientVersion v : reversedVersions) {
             if (version.isNewerThanOrEquals(v)) {
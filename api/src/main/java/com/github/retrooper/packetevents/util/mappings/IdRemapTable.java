@@ -0,0 +1,171 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util.mappings;
+
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.GlobalPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.storage.BaseStorage;
+import com.github.retrooper.packetevents.protocol.world.chunk.storage.BitStorage;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Translates ids of one version into the ids of another version with a single array lookup.
+ * <p>
+ * Tables are immutable and cached by their owner, see
+ * {@link VersionedRegistry#getRemapTable(com.github.retrooper.packetevents.protocol.player.ClientVersion,
+ * com.github.retrooper.packetevents.protocol.player.ClientVersion)} and
+ * {@link com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState#getRemapTable(
+ * com.github.retrooper.packetevents.protocol.player.ClientVersion,
+ * com.github.retrooper.packetevents.protocol.player.ClientVersion)}.
+ */
+public final class IdRemapTable implements IntUnaryOperator {
+
+    private final int[] ids;
+    private final int fallback;
+    private final int targetSize;
+    private final boolean identity;
+
+    /**
+     * @param ids      the target id of every source id
+     * @param fallback the id returned for source ids outside of the table
+     */
+    public IdRemapTable(int[] ids, int fallback) {
+        this(ids, fallback, maxId(ids, fallback) + 1);
+    }
+
+    /**
+     * @param ids        the target id of every source id
+     * @param fallback   the id returned for source ids outside of the table
+     * @param targetSize the amount of ids known by the target version
+     */
+    public IdRemapTable(int[] ids, int fallback, int targetSize) {
+        this.ids = ids;
+        this.fallback = fallback;
+        this.targetSize = targetSize;
+        boolean identity = true;
+        for (int i = 0; i < ids.length && identity; i++) {
+            identity = ids[i] == i;
+        }
+        this.identity = identity;
+    }
+
+    private static int maxId(int[] ids, int fallback) {
+        int max = fallback;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        return max;
+    }
+
+    /**
+     * @return the id in the target version, or the fallback id if the source id is unknown
+     */
+    public int remap(int id) {
+        int[] ids = this.ids;
+        return id >= 0 && id < ids.length ? ids[id] : this.fallback;
+    }
+
+    @Override
+    public int applyAsInt(int id) {
+        return this.remap(id);
+    }
+
+    /**
+     * Remaps all ids of the array in place.
+     */
+    public void remapAll(int[] ids) {
+        this.remapAll(ids, 0, ids.length);
+    }
+
+    /**
+     * Remaps the ids of the array from offset (inclusive) to offset + length (exclusive) in place.
+     */
+    public void remapAll(int[] ids, int offset, int length) {
+        if (this.identity) {
+            return;
+        }
+        for (int i = offset, end = offset + length; i < end; i++) {
+            ids[i] = this.remap(ids[i]);
+        }
+    }
+
+    /**
+     * Remaps all states of the palette, see {@link DataPalette#replaceAll(IntUnaryOperator, int)}.
+     * Sections using the {@link GlobalPalette} are re-packed with the bits per entry of the target version.
+     */
+    public void remapAll(DataPalette palette) {
+        int bitsPerEntry = this.getTargetBitsPerEntry();
+        if (!this.identity || palette.palette instanceof GlobalPalette
+                && palette.storage.getBitsPerEntry() != bitsPerEntry) {
+            palette.replaceAll(this, bitsPerEntry);
+        }
+    }
+
+    /**
+     * Remaps all values of a storage which holds the ids directly, e.g. the storage of a {@link GlobalPalette}.
+     *
+     * @return the remapped storage, which is a new storage if the ids of the target version
+     * need a different amount of bits per entry
+     */
+    public BaseStorage remapAll(BaseStorage storage) {
+        if (storage instanceof BitStorage) {
+            int bitsPerEntry = this.getTargetBitsPerEntry();
+            if (!this.identity || storage.getBitsPerEntry() != bitsPerEntry) {
+                return ((BitStorage) storage).replaceAll(this, bitsPerEntry);
+            }
+        } else if (!this.identity) {
+            storage.replaceAll(this);
+        }
+        return storage;
+    }
+
+    /**
+     * @return whether every id maps to itself, remapping is skipped in that case
+     */
+    public boolean isIdentity() {
+        return this.identity;
+    }
+
+    public int getFallback() {
+        return this.fallback;
+    }
+
+    /**
+     * @return the amount of ids known by the target version
+     */
+    public int getTargetSize() {
+        return this.targetSize;
+    }
+
+    /**
+     * @return the bits per entry required to store every id of the target version,
+     * which is what the target version uses for the {@link GlobalPalette}
+     */
+    public int getTargetBitsPerEntry() {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(this.targetSize - 1));
+    }
+
+    /**
+     * @return the amount of source ids known by this table
+     */
+    public int size() {
+        return this.ids.length;
+    }
+}
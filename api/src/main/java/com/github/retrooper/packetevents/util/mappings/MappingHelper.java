@@ -27,10 +27,13 @@ import com.github.retrooper.packetevents.protocol.nbt.NBTString;
 import com.github.retrooper.packetevents.protocol.nbt.serializer.SequentialNBTReader;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -53,6 +56,29 @@ public class MappingHelper {
         }
     }
 
+    /**
+     * Reads a binary mappings snapshot generated by the build.
+     *
+     * @param path Path of the snapshot, without the assets prefix and file extension
+     * @return Contents of the snapshot, or null if the resource provider has no such file
+     */
+    public static byte @Nullable [] readBinary(final String path) {
+        try (InputStream input = PacketEvents.getAPI().getSettings().getResourceProvider().apply("assets/" + path + ".bin")) {
+            if (input == null) {
+                return null;
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream(64 * 1024);
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read resource file " + path + ".bin", e);
+        }
+    }
+
     public static List<ListDiff<String>> createListDiff(final SequentialNBTReader.Compound compound) {
         final List<ListDiff<String>> diffs = new ArrayList<>();
 
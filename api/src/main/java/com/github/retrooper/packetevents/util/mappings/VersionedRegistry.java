@@ -40,6 +40,11 @@ public final class VersionedRegistry<T extends MappedEntity> implements IRegistr
 
     private final Map<String, T> typeMap = new HashMap<>();
     private final Map<Byte, Map<Integer, T>> typeIdMap = new HashMap<>();
+    // frozen copy of the id maps, indexed by data index and id; rebuilt on first lookup after a definition,
+    // volatile to publish the fully built arrays to other threads
+    private volatile T @Nullable [][] typeIdArrays;
+    // lazily built remap tables, indexed by source and target data index
+    private volatile IdRemapTable @Nullable [][] remapTables;
 
     public VersionedRegistry(String registry) {
         this(registry, "registries/" + registry);
@@ -60,18 +65,57 @@ public final class VersionedRegistry<T extends MappedEntity> implements IRegistr
         TypesBuilderData typeData = this.typesBuilder.define(name);
         Z instance = builder.apply(typeData);
         MappingHelper.registerMapping(this.typesBuilder, this.typeMap, this.typeIdMap, typeData, instance);
+        this.typeIdArrays = null;
+        this.remapTables = null;
         return instance;
     }
 
+    private T[][] getTypeIdArrays() {
+        T[][] arrays = this.typeIdArrays;
+        if (arrays == null) {
+            // building the arrays twice on concurrent access is harmless, both copies are equal
+            this.typeIdArrays = arrays = this.freezeTypeIds();
+        }
+        return arrays;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[][] freezeTypeIds() {
+        T[][] arrays = (T[][]) new MappedEntity[this.typesBuilder.getVersions().length][];
+        for (int index = 0; index < arrays.length; index++) {
+            Map<Integer, T> idMap = this.typeIdMap.getOrDefault((byte) index, Collections.emptyMap());
+            int size = 0;
+            for (int id : idMap.keySet()) {
+                size = Math.max(size, id + 1);
+            }
+            T[] ids = (T[]) new MappedEntity[size];
+            for (Map.Entry<Integer, T> entry : idMap.entrySet()) {
+                if (entry.getKey() >= 0) {
+                    ids[entry.getKey()] = entry.getValue();
+                }
+            }
+            arrays[index] = ids;
+        }
+        return arrays;
+    }
+
     @VisibleForTesting
     @ApiStatus.Internal
     public TypesBuilder getTypesBuilder() {
         return this.typesBuilder;
     }
 
+    @VisibleForTesting
+    @ApiStatus.Internal
+    public Map<Integer, T> getTypeIdMap(int dataIndex) {
+        return Collections.unmodifiableMap(this.typeIdMap.getOrDefault((byte) dataIndex, Collections.emptyMap()));
+    }
+
     @ApiStatus.Internal
     public void unloadMappings() {
         this.typesBuilder.unloadFileMappings();
+        // all entries have been defined at this point
+        this.getTypeIdArrays();
     }
 
     @Override
@@ -87,9 +131,23 @@ public final class VersionedRegistry<T extends MappedEntity> implements IRegistr
 
     @Override
     public @Nullable T getById(ClientVersion version, int id) {
-        int index = this.typesBuilder.getDataIndex(version);
-        Map<Integer, T> idMap = this.typeIdMap.get((byte) index);
-        return idMap.get(id);
+        return this.getById(this.typesBuilder.getDataIndex(version), id);
+    }
+
+    /**
+     * Looks up an entry by the data index of a version, see {@link #getDataIndex(ClientVersion)}.
+     * Resolving the data index once allows decoding many ids with plain array loads.
+     */
+    public @Nullable T getById(int dataIndex, int id) {
+        T[] ids = this.getTypeIdArrays()[dataIndex];
+        return id >= 0 && id < ids.length ? ids[id] : null;
+    }
+
+    /**
+     * @return the index of the mappings data used for the given version
+     */
+    public int getDataIndex(ClientVersion version) {
+        return this.typesBuilder.getDataIndex(version);
     }
 
     @Override
@@ -97,6 +155,40 @@ public final class VersionedRegistry<T extends MappedEntity> implements IRegistr
         return entity.getId(version);
     }
 
+    /**
+     * Returns a table which translates the ids of the source version into the ids of the target version.
+     * Ids of entries which don't exist in the target version are translated to -1.
+     * <p>
+     * The table is built on first use and cached afterward.
+     */
+    public IdRemapTable getRemapTable(ClientVersion from, ClientVersion to) {
+        int fromIndex = this.typesBuilder.getDataIndex(from);
+        int toIndex = this.typesBuilder.getDataIndex(to);
+        IdRemapTable[][] tables = this.remapTables;
+        if (tables == null) {
+            int versions = this.typesBuilder.getVersions().length;
+            this.remapTables = tables = new IdRemapTable[versions][versions];
+        }
+        // tables are immutable and only have final fields, so they can be shared without locking;
+        // building the same table twice on concurrent access is harmless
+        IdRemapTable table = tables[fromIndex][toIndex];
+        if (table == null) {
+            tables[fromIndex][toIndex] = table = this.buildRemapTable(fromIndex, toIndex, to);
+        }
+        return table;
+    }
+
+    private IdRemapTable buildRemapTable(int fromIndex, int toIndex, ClientVersion to) {
+        T[][] arrays = this.getTypeIdArrays();
+        T[] entries = arrays[fromIndex];
+        int[] ids = new int[entries.length];
+        for (int id = 0; id < entries.length; id++) {
+            T entry = entries[id];
+            ids[id] = entry != null ? entry.getId(to) : -1;
+        }
+        return new IdRemapTable(ids, -1, arrays[toIndex].length);
+    }
+
     /**
      * {@inheritDoc}
      */
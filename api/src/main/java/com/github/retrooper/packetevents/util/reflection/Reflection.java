@@ -21,6 +21,8 @@ package com.github.retrooper.packetevents.util.reflection;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -30,6 +32,8 @@ import java.util.Arrays;
 import java.util.List;
 
 public final class Reflection {
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
 	//FIELDS
 	public static Field[] getFields(final Class<?> cls) {
 		if (cls == null) {
@@ -259,6 +263,48 @@ public final class Reflection {
 		return methods;
 	}
 
+	// METHOD HANDLES
+
+	/**
+	 * Creates a method handle reading the field, with all reference types erased to {@link Object}.
+	 * Invoking the handle with {@link MethodHandle#invokeExact} avoids the overhead of {@link Field#get(Object)}.
+	 *
+	 * @return Getter of the field, or null if the field is null or not accessible
+	 */
+	@Nullable
+	public static MethodHandle getGetterHandle(@Nullable final Field field) {
+		if (field == null) {
+			return null;
+		}
+		try {
+			field.setAccessible(true);
+			MethodHandle handle = LOOKUP.unreflectGetter(field);
+			return handle.asType(handle.type().erase());
+		} catch (Throwable ignored) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a method handle invoking the method, with all reference types erased to {@link Object}.
+	 * Invoking the handle with {@link MethodHandle#invokeExact} avoids the overhead of {@link Method#invoke(Object, Object...)}.
+	 *
+	 * @return Handle of the method, or null if the method is null or not accessible
+	 */
+	@Nullable
+	public static MethodHandle getMethodHandle(@Nullable final Method method) {
+		if (method == null) {
+			return null;
+		}
+		try {
+			method.setAccessible(true);
+			MethodHandle handle = LOOKUP.unreflect(method);
+			return handle.asType(handle.type().erase());
+		} catch (Throwable ignored) {
+			return null;
+		}
+	}
+
 	// CLASS
 	@Nullable
 	public static Class<?> getClassByNameWithoutException(final String name) {
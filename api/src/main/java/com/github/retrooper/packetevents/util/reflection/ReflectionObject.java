@@ -295,16 +295,29 @@ public class ReflectionObject implements ReflectionObjectReader, ReflectionObjec
     }
 
     private Field getField(Class<?> type, int index) {
-        Map<Class<?>, Field[]> cached = FIELD_CACHE.computeIfAbsent(clazz, k -> new ConcurrentHashMap<>());
-        Field[] fields = cached.computeIfAbsent(type, typeClass -> getFields(typeClass, clazz.getDeclaredFields()));
-        if (fields.length >= index + 1) {
-            return fields[index];
-        } else {
+        Field field = getField(clazz, type, index);
+        if (field == null) {
             throw new IllegalStateException("PacketEvents failed to find a " + type.getSimpleName() + " indexed " + index + " by its type in the " + clazz.getName() + " class!");
         }
+        return field;
+    }
+
+    /**
+     * Resolves the field the same way instances of this class read and write them, this allows
+     * resolving a field once instead of creating a new reflection object for every access.
+     *
+     * @return The index-th field declared in clazz which has exactly the given type, or null if there is none
+     */
+    public static Field getField(Class<?> clazz, Class<?> type, int index) {
+        if (clazz == null || type == null) {
+            return null;
+        }
+        Map<Class<?>, Field[]> cached = FIELD_CACHE.computeIfAbsent(clazz, k -> new ConcurrentHashMap<>());
+        Field[] fields = cached.computeIfAbsent(type, typeClass -> getFields(typeClass, clazz.getDeclaredFields()));
+        return fields.length >= index + 1 ? fields[index] : null;
     }
 
-    private Field[] getFields(Class<?> type, Field[] fields) {
+    private static Field[] getFields(Class<?> type, Field[] fields) {
         List<Field> ret = new ArrayList<>();
         for (Field field : fields) {
             if (field.getType().equals(type)) {
@@ -49,6 +49,7 @@ import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.manager.server.VersionComparison;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.chat.*;
@@ -67,6 +68,7 @@ import com.github.retrooper.packetevents.protocol.entity.villager.type.VillagerT
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
 import com.github.retrooper.packetevents.protocol.item.ItemStackSerialization;
 import com.github.retrooper.packetevents.protocol.mapper.MappedEntity;
+import com.github.retrooper.packetevents.protocol.nbt.LazyNBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBT;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTEnd;
@@ -91,6 +93,7 @@ import com.github.retrooper.packetevents.util.crypto.SignatureData;
 import com.github.retrooper.packetevents.util.mappings.GlobalRegistryHolder;
 import com.github.retrooper.packetevents.util.mappings.IRegistry;
 import com.github.retrooper.packetevents.util.mappings.IRegistryHolder;
+import com.github.retrooper.packetevents.util.mappings.VersionedRegistry;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.Style;
 import org.jetbrains.annotations.ApiStatus;
@@ -114,6 +117,8 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     @ApiStatus.Internal
     public final Object bufferLock = new Object();
+    // resolved once per wrapper, saves going through the api and netty manager for every primitive
+    private @Nullable ByteBufOperator byteBufOperator;
 
     protected ClientVersion clientVersion;
     protected ServerVersion serverVersion;
@@ -251,6 +256,18 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     }
 
+    /**
+     * Called once the listeners are done with the buffer this wrapper has been read from.
+     * Wrappers which write ranges of the read buffer again instead of encoding those fields have to copy
+     * the ranges now if they are going to be re-encoded, as the buffer is cleared for that. Otherwise, the buffer
+     * is handed on and its content can't be relied on anymore.
+     *
+     * @param reEncode whether this wrapper is about to be written into the cleared buffer
+     */
+    @ApiStatus.Internal
+    public void releaseReadBuffer(boolean reEncode) {
+    }
+
     //TODO Rename to copyFrom, as it copies data from the passed in wrapper.
     public void copy(T wrapper) {
 
@@ -289,6 +306,14 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         return buffer;
     }
 
+    private ByteBufOperator getByteBufOperator() {
+        ByteBufOperator operator = this.byteBufOperator;
+        if (operator == null) {
+            this.byteBufOperator = operator = PacketEvents.getAPI().getNettyManager().getByteBufOperator();
+        }
+        return operator;
+    }
+
     public void setBuffer(Object buffer) {
         this.buffer = buffer;
     }
@@ -341,15 +366,15 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public byte readByte() {
-        return ByteBufHelper.readByte(buffer);
+        return this.getByteBufOperator().readByte(buffer);
     }
 
     public void writeByte(int value) {
-        ByteBufHelper.writeByte(buffer, value);
+        this.getByteBufOperator().writeByte(buffer, value);
     }
 
     public short readUnsignedByte() {
-        return ByteBufHelper.readUnsignedByte(buffer);
+        return this.getByteBufOperator().readUnsignedByte(buffer);
     }
 
     public boolean readBoolean() {
@@ -361,38 +386,27 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readInt() {
-        return ByteBufHelper.readInt(buffer);
+        return this.getByteBufOperator().readInt(buffer);
     }
 
     public void writeInt(int value) {
-        ByteBufHelper.writeInt(buffer, value);
+        this.getByteBufOperator().writeInt(buffer, value);
     }
 
     public long readUnsignedInt() {
-        return ByteBufHelper.readUnsignedInt(buffer);
+        return this.getByteBufOperator().readUnsignedInt(buffer);
     }
 
     public int readMedium() {
-        return ByteBufHelper.readMedium(buffer);
+        return this.getByteBufOperator().readMedium(buffer);
     }
 
     public void writeMedium(int value) {
-        ByteBufHelper.writeMedium(buffer, value);
+        this.getByteBufOperator().writeMedium(buffer, value);
     }
 
     public int readVarInt() {
-        int value = 0;
-        int length = 0;
-        byte currentByte;
-        do {
-            currentByte = readByte();
-            value |= (currentByte & 0x7F) << (length * 7);
-            length++;
-            if (length > 5) {
-                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
-            }
-        } while ((currentByte & 0x80) == 0x80);
-        return value;
+        return this.getByteBufOperator().readVarInt(buffer);
     }
 
     public void writeVarInt(int value) {
@@ -507,6 +521,16 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         return NBTCodec.readNBTFromBuffer(buffer, serverVersion);
     }
 
+    /**
+     * Reads a compound which only decodes the tags which are accessed, and which is written
+     * again as the original bytes if it hasn't been modified.
+     *
+     * @see LazyNBTCompound
+     */
+    public NBTCompound readLazyNBT() {
+        return (NBTCompound) NBTCodec.readLazyNBTFromBuffer(buffer, serverVersion);
+    }
+
     public NBTCompound readUnlimitedNBT() {
         return (NBTCompound) this.readUnlimitedNBTRaw();
     }
@@ -535,8 +559,8 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         } else if (j < 0) {
             throw new RuntimeException("The received encoded string buffer length is less than zero! Weird string!");
         } else {
-            String s = ByteBufHelper.toString(buffer, ByteBufHelper.readerIndex(buffer), j, StandardCharsets.UTF_8);
-            ByteBufHelper.readerIndex(buffer, ByteBufHelper.readerIndex(buffer) + j);
+            String s = ByteBufHelper.toString(buffer, this.getByteBufOperator().readerIndex(buffer), j, StandardCharsets.UTF_8);
+            this.getByteBufOperator().readerIndex(buffer, this.getByteBufOperator().readerIndex(buffer) + j);
             if (s.length() > maxLen) {
                 throw new RuntimeException("The received string length is longer than maximum allowed (" + j + " > " + maxLen + ")");
             } else {
@@ -568,7 +592,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
             throw new IllegalStateException("String too big (was " + bytes.length + " bytes encoded, max " + maxLen + ")");
         } else {
             writeVarInt(bytes.length);
-            ByteBufHelper.writeBytes(buffer, bytes);
+            this.getByteBufOperator().writeBytes(buffer, bytes);
         }
     }
 
@@ -638,19 +662,19 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readUnsignedShort() {
-        return ByteBufHelper.readUnsignedShort(buffer);
+        return this.getByteBufOperator().readUnsignedShort(buffer);
     }
 
     public short readShort() {
-        return ByteBufHelper.readShort(buffer);
+        return this.getByteBufOperator().readShort(buffer);
     }
 
     public void writeShort(int value) {
-        ByteBufHelper.writeShort(buffer, value);
+        this.getByteBufOperator().writeShort(buffer, value);
     }
 
     public void writeShortLE(int value) {
-        ByteBufHelper.writeShortLE(buffer, value);
+        this.getByteBufOperator().writeShortLE(buffer, value);
     }
 
     public int readVarShort() {
@@ -676,11 +700,11 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public long readLong() {
-        return ByteBufHelper.readLong(buffer);
+        return this.getByteBufOperator().readLong(buffer);
     }
 
     public void writeLong(long value) {
-        ByteBufHelper.writeLong(buffer, value);
+        this.getByteBufOperator().writeLong(buffer, value);
     }
 
     public long readVarLong() {
@@ -703,33 +727,43 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public float readFloat() {
-        return ByteBufHelper.readFloat(buffer);
+        return this.getByteBufOperator().readFloat(buffer);
     }
 
     public void writeFloat(float value) {
-        ByteBufHelper.writeFloat(buffer, value);
+        this.getByteBufOperator().writeFloat(buffer, value);
     }
 
     public double readDouble() {
-        return ByteBufHelper.readDouble(buffer);
+        return this.getByteBufOperator().readDouble(buffer);
     }
 
     public void writeDouble(double value) {
-        ByteBufHelper.writeDouble(buffer, value);
+        this.getByteBufOperator().writeDouble(buffer, value);
     }
 
     public byte[] readRemainingBytes() {
-        return readBytes(ByteBufHelper.readableBytes(buffer));
+        return readBytes(this.getByteBufOperator().readableBytes(buffer));
+    }
+
+    /**
+     * Copies the bytes which have been read since the given reader index, without changing the reader index.
+     * This allows writing a decoded field again without encoding it, as long as it hasn't been modified.
+     */
+    public byte[] copyReadBytes(int startReaderIndex) {
+        byte[] bytes = new byte[this.getByteBufOperator().readerIndex(buffer) - startReaderIndex];
+        ByteBufHelper.getBytes(buffer, startReaderIndex, bytes);
+        return bytes;
     }
 
     public byte[] readBytes(int size) {
         byte[] bytes = new byte[size];
-        ByteBufHelper.readBytes(buffer, bytes);
+        this.getByteBufOperator().readBytes(buffer, bytes);
         return bytes;
     }
 
     public void writeBytes(byte[] array) {
-        ByteBufHelper.writeBytes(buffer, array);
+        this.getByteBufOperator().writeBytes(buffer, array);
     }
 
     public byte[] readByteArray(int maxLength) {
@@ -741,7 +775,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public byte[] readByteArray() {
-        return readByteArray(ByteBufHelper.readableBytes(buffer));
+        return readByteArray(this.getByteBufOperator().readableBytes(buffer));
     }
 
     public void writeByteArray(byte[] array) {
@@ -750,7 +784,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int[] readVarIntArray() {
-        int readableBytes = ByteBufHelper.readableBytes(buffer);
+        int readableBytes = this.getByteBufOperator().readableBytes(buffer);
         int size = readVarInt();
         if (size > readableBytes) {
             throw new IllegalStateException("VarIntArray with size " + size + " is bigger than allowed " + readableBytes);
@@ -781,12 +815,12 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     public byte[] readByteArrayOfSize(int size) {
         byte[] array = new byte[size];
-        ByteBufHelper.readBytes(buffer, array);
+        this.getByteBufOperator().readBytes(buffer, array);
         return array;
     }
 
     public void writeByteArrayOfSize(byte[] array) {
-        ByteBufHelper.writeBytes(buffer, array);
+        this.getByteBufOperator().writeBytes(buffer, array);
     }
 
     public int[] readVarIntArrayOfSize(int size) {
@@ -804,7 +838,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public long[] readLongArray() {
-        int readableBytes = ByteBufHelper.readableBytes(buffer) / 8;
+        int readableBytes = this.getByteBufOperator().readableBytes(buffer) / 8;
         int size = readVarInt();
         if (size > readableBytes) {
             throw new IllegalStateException("LongArray with size " + size + " is bigger than allowed " + readableBytes);
@@ -1470,6 +1504,16 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     public <Z extends MappedEntity> Z readMappedEntity(IRegistry<Z> registry) {
         IRegistry<Z> replacedRegistry = this.getRegistryHolder().getRegistryOr(registry, this.serverVersion.toClientVersion());
+        if (replacedRegistry instanceof VersionedRegistry) {
+            // skip boxing the id, versioned registries are backed by plain arrays
+            VersionedRegistry<Z> versionedRegistry = (VersionedRegistry<Z>) replacedRegistry;
+            int id = this.readVarInt();
+            Z entity = versionedRegistry.getById(versionedRegistry.getDataIndex(this.serverVersion.toClientVersion()), id);
+            if (entity == null) {
+                throw new IllegalStateException("Can't find mapped entity with id " + id + " using " + replacedRegistry);
+            }
+            return entity;
+        }
         return this.readMappedEntity((BiFunction<ClientVersion, Integer, Z>) replacedRegistry);
     }
 
@@ -42,6 +42,7 @@ import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkR
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkReader_v1_8;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkReader_v1_9;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.BitSet;
 import java.util.Map;
@@ -61,6 +62,18 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
     private LightData lightData;
     private boolean ignoreOldData;
 
+    // the buffer the packet has been read from (1.18+) and the reader index ranges of the encoded parts
+    // in it, as start and end index per part; parts which haven't been modified are written again as read
+    private @Nullable Object rawBuffer;
+    private int @Nullable [] rawRanges;
+    // the version the parts have been encoded for, proxies may write the packet for another version
+    private @Nullable ServerVersion rawVersion;
+
+    private static final int RAW_HEIGHTMAPS = 0;
+    private static final int RAW_CHUNKS = 1;
+    private static final int RAW_TILE_ENTITIES = 2;
+    private static final int RAW_LIGHT_DATA = 3;
+
     public WrapperPlayServerChunkData(PacketSendEvent event) {
         super(event);
     }
@@ -82,6 +95,8 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
     @Override
     public void read() {
+        boolean v1_18 = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18);
+        int[] rawRanges = v1_18 ? new int[8] : null;
         int chunkX = readInt();
         int chunkZ = readInt();
 
@@ -99,6 +114,9 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         boolean hasHeightMaps = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_14);
         NBTCompound heightmapsNbt = null;
         Map<HeightmapType, long[]> modernHeightmaps = null;
+        if (rawRanges != null) {
+            rawRanges[RAW_HEIGHTMAPS * 2] = ByteBufHelper.readerIndex(this.buffer);
+        }
         if (hasHeightMaps) {
             if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_5)) {
                 modernHeightmaps = this.readMap(HeightmapType::read, PacketWrapper::readLongArray);
@@ -107,6 +125,10 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             }
         }
 
+        if (rawRanges != null) {
+            rawRanges[RAW_HEIGHTMAPS * 2 + 1] = ByteBufHelper.readerIndex(this.buffer);
+        }
+
         // 1.7 sends a secondary bit mask for the block metadata
         BitSet secondaryChunkMask = null;
         if (serverVersion.isOlderThanOrEquals(ServerVersion.V_1_7_10)) {
@@ -156,6 +178,9 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
                 && this.serverVersion.isOlderThan(ServerVersion.V_1_14);
 
         Object originalBuffer = this.buffer;
+        if (rawRanges != null) {
+            rawRanges[RAW_CHUNKS * 2] = ByteBufHelper.readerIndex(this.buffer);
+        }
         int dataLength;
         if (this.serverVersion.isOlderThanOrEquals(ServerVersion.V_1_7_10)) {
             // decompress data and replace contents of this packet wrapper with the chunk data temporarily
@@ -210,6 +235,11 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             }
         }
 
+        if (rawRanges != null) {
+            rawRanges[RAW_CHUNKS * 2 + 1] = ByteBufHelper.readerIndex(this.buffer);
+            rawRanges[RAW_TILE_ENTITIES * 2] = ByteBufHelper.readerIndex(this.buffer);
+        }
+
         // Tile entities are not sent with this packet on 1.8 and below
         // on 1.9 and above for all versions, tile entities are sent with the chunk data
         // (And can be sent with their own packet too!)
@@ -226,8 +256,14 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             }
         }
 
-        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
+        if (rawRanges != null) {
+            rawRanges[RAW_TILE_ENTITIES * 2 + 1] = ByteBufHelper.readerIndex(this.buffer);
+            rawRanges[RAW_LIGHT_DATA * 2] = ByteBufHelper.readerIndex(this.buffer);
             this.lightData = LightData.read(this);
+            rawRanges[RAW_LIGHT_DATA * 2 + 1] = ByteBufHelper.readerIndex(this.buffer);
+            this.rawBuffer = this.buffer;
+            this.rawRanges = rawRanges;
+            this.rawVersion = this.serverVersion;
         }
 
         if (hasBiomeData) {
@@ -289,10 +325,146 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
     @Override
     public void write() {
+        if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
+            this.writeModernColumn();
+            if (!this.writeRaw(RAW_LIGHT_DATA)) {
+                LightData.write(this, this.lightData);
+            }
+        } else {
+            this.writeColumn();
+        }
+    }
+
+    @Override
+    public void releaseReadBuffer(boolean reEncode) {
+        if (this.rawRanges == null || this.rawBuffer != this.buffer) {
+            return;
+        }
+        if (!reEncode) {
+            // the buffer is handed on, it may be released or reused at any time
+            this.invalidateRaw();
+            return;
+        }
+        // the buffer is cleared and overwritten when re-encoding, copy the parts which are still needed
+        int start = Integer.MAX_VALUE;
+        int end = -1;
+        for (int i = 0; i < this.rawRanges.length; i += 2) {
+            if (this.rawRanges[i] != -1) {
+                start = Math.min(start, this.rawRanges[i]);
+                end = Math.max(end, this.rawRanges[i + 1]);
+            }
+        }
+        if (end == -1) {
+            this.invalidateRaw();
+            return;
+        }
+        byte[] data = new byte[end - start];
+        ByteBufHelper.getBytes(this.buffer, start, data);
+        for (int i = 0; i < this.rawRanges.length; i += 2) {
+            if (this.rawRanges[i] != -1) {
+                this.rawRanges[i] -= start;
+                this.rawRanges[i + 1] -= start;
+            }
+        }
+        this.rawBuffer = UnpooledByteBufAllocationHelper.wrappedBuffer(data);
+    }
+
+    private void invalidateRaw() {
+        this.rawBuffer = null;
+        this.rawRanges = null;
+        this.rawVersion = null;
+    }
+
+    private void invalidateRaw(int part) {
+        if (this.rawRanges != null) {
+            this.rawRanges[part * 2] = -1;
+        }
+    }
+
+    // Writes the part as it has been read, returns false if the part has to be encoded
+    private boolean writeRaw(int part) {
+        if (this.rawRanges == null || this.rawBuffer == null || this.rawRanges[part * 2] == -1) {
+            return false;
+        }
+        if (this.rawVersion != this.serverVersion) {
+            // the parts are encoded in the format of another version
+            this.invalidateRaw();
+            return false;
+        }
+        int start = this.rawRanges[part * 2];
+        int end = this.rawRanges[part * 2 + 1];
+        if (ByteBufHelper.refCnt(this.rawBuffer) <= 0 || this.rawBuffer == this.buffer
+                && ByteBufHelper.writerIndex(this.buffer) < end) {
+            // the buffer has been released or is being overwritten
+            this.invalidateRaw();
+            return false;
+        }
+        Object source = ByteBufHelper.duplicate(this.rawBuffer);
+        ByteBufHelper.readerIndex(source, start);
+        ByteBufHelper.writerIndex(source, end);
+        ByteBufHelper.writeBytes(this.buffer, source);
+        return true;
+    }
+
+    private void writeModernColumn() {
+        writeInt(column.getX());
+        writeInt(column.getZ());
+
+        if (this.column.isAccessed(Column.HEIGHTMAPS) || !this.writeRaw(RAW_HEIGHTMAPS)) {
+            if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_5)) {
+                this.writeMap(this.column.getHeightmaps(), HeightmapType::write, PacketWrapper::writeLongArray);
+            } else {
+                this.writeNBT(this.column.getHeightMaps());
+            }
+        }
+
+        if (this.column.isAccessed(Column.CHUNKS) || !this.writeRaw(RAW_CHUNKS)) {
+            BaseChunk[] chunks = column.getChunks();
+            // allocate new buffer which holds all chunk data
+            Object originalBuffer = this.buffer;
+            Object dataBuffer = ByteBufHelper.allocateNewBuffer(this.buffer);
+            // temporarily replace backing buffer of wrapper
+            this.buffer = dataBuffer;
+            for (BaseChunk chunk : chunks) {
+                Chunk_v1_18.write(this, (Chunk_v1_18) chunk);
+            }
+            // switch backing buffer back
+            this.buffer = originalBuffer;
+
+            // write the same amount of zero bytes mojang also writes
+            if (this.serverVersion.isOlderThan(ServerVersion.V_1_21_6)
+                    && this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_5)) {
+                int zeroBytes = ChunkReader_v1_18.getMojangZeroByteSuffixLength(chunks);
+                int newWriterIndex = ByteBufHelper.writerIndex(dataBuffer) + zeroBytes;
+                // allocate enough space for the zeros
+                if (newWriterIndex > ByteBufHelper.capacity(dataBuffer)) {
+                    ByteBufHelper.capacity(dataBuffer, newWriterIndex);
+                }
+                // create zeros by just skipping the writer index
+                ByteBufHelper.writerIndex(dataBuffer, newWriterIndex);
+            }
+
+            // copy data buffer to this buffer
+            this.writeVarInt(ByteBufHelper.readableBytes(dataBuffer));
+            ByteBufHelper.writeBytes(this.buffer, dataBuffer);
+            ByteBufHelper.release(dataBuffer);
+        }
+
+        if (this.column.isAccessed(Column.TILE_ENTITIES) || !this.writeRaw(RAW_TILE_ENTITIES)) {
+            writeVarInt(column.getTileEntities().length);
+            for (TileEntity tileEntity : column.getTileEntities()) {
+                writeByte(tileEntity.getPackedByte());
+                writeShort(tileEntity.getYShort());
+                writeVarInt(tileEntity.getType());
+                writeNBT(tileEntity.getNBT());
+            }
+        }
+    }
+
+    private void writeColumn() {
         writeInt(column.getX());
         writeInt(column.getZ());
 
-        boolean v1_18 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18);
         boolean v1_17 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17);
         boolean v1_9 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9);
         boolean v1_8 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8);
@@ -323,28 +495,13 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
             for (int index = 0; index < chunks.length; index++) {
                 BaseChunk chunk = chunks[index];
-                if (v1_18) {
-                    Chunk_v1_18.write(this, (Chunk_v1_18) chunk);
-                } else if (v1_9 && chunk != null) {
+                if (v1_9 && chunk != null) {
                     chunkMask.set(index);
                     Chunk_v1_9.write(this, (Chunk_v1_9) chunk);
                 }
             }
             // switch backing buffer back
             this.buffer = originalBuffer;
-
-            // write the same amount of zero bytes mojang also writes
-            if (this.serverVersion.isOlderThan(ServerVersion.V_1_21_6)
-                    && this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_5)) {
-                int zeroBytes = ChunkReader_v1_18.getMojangZeroByteSuffixLength(chunks);
-                int newWriterIndex = ByteBufHelper.writerIndex(dataBuffer) + zeroBytes;
-                // allocate enough space for the zeros
-                if (newWriterIndex > ByteBufHelper.capacity(dataBuffer)) {
-                    ByteBufHelper.capacity(dataBuffer, newWriterIndex);
-                }
-                // create zeros by just skipping the writer index
-                ByteBufHelper.writerIndex(dataBuffer, newWriterIndex);
-            }
         } else if (v1_8) {
             NetworkChunkData data = ChunkReader_v1_8.chunksToData((Chunk_v1_8[]) chunks, column.getBiomeDataBytes());
             writeShort(data.getMask());
@@ -383,20 +540,14 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             hasWrittenBiomeData = true;
         }
 
-        if (!v1_18) {
-            ChunkBitMask.writeChunkMask(this, chunkMask);
-        }
+        ChunkBitMask.writeChunkMask(this, chunkMask);
 
         boolean hasHeightMaps = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_14);
         if (hasHeightMaps) {
-            if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_5)) {
-                this.writeMap(this.column.getHeightmaps(), HeightmapType::write, PacketWrapper::writeLongArray);
-            } else {
-                this.writeNBT(this.column.getHeightMaps());
-            }
+            this.writeNBT(this.column.getHeightMaps());
         }
 
-        if (column.hasBiomeData() && serverVersion.isNewerThanOrEquals(ServerVersion.V_1_15) && !v1_18) {
+        if (column.hasBiomeData() && serverVersion.isNewerThanOrEquals(ServerVersion.V_1_15)) {
             boolean bytesInsteadOfInts = serverVersion.isOlderThan(ServerVersion.V_1_13);
             int[] biomeDataInts = column.getBiomeDataInts();
             byte[] biomeDataByes = column.getBiomeDataBytes();
@@ -432,15 +583,7 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             writeByteArray(biomeDataBytes);
         }
 
-        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
-            writeVarInt(column.getTileEntities().length);
-            for (TileEntity tileEntity : column.getTileEntities()) {
-                writeByte(tileEntity.getPackedByte());
-                writeShort(tileEntity.getYShort());
-                writeVarInt(tileEntity.getType());
-                writeNBT(tileEntity.getNBT());
-            }
-        } else if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
             TileEntity[] tileEntities = column.getTileEntities();
             writeVarInt(tileEntities.length);
 
@@ -448,10 +591,6 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
                 writeNBT(tileEntity.getNBT());
             }
         }
-
-        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
-            LightData.write(this, lightData);
-        }
     }
 
     @Override
@@ -460,22 +599,34 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         this.lightData = wrapper.lightData != null
                 ? wrapper.lightData.clone() : null;
         this.ignoreOldData = wrapper.ignoreOldData;
+        this.rawBuffer = wrapper.rawBuffer;
+        this.rawRanges = wrapper.rawRanges != null ? wrapper.rawRanges.clone() : null;
+        this.rawVersion = wrapper.rawVersion;
     }
 
+    /**
+     * The parts of the column which are accessed through it count as modified, those are encoded again
+     * when writing this packet.
+     */
     public Column getColumn() {
         return column;
     }
 
     public void setColumn(Column column) {
         this.column = column;
+        this.invalidateRaw(RAW_HEIGHTMAPS);
+        this.invalidateRaw(RAW_CHUNKS);
+        this.invalidateRaw(RAW_TILE_ENTITIES);
     }
 
     public LightData getLightData() {
+        this.invalidateRaw(RAW_LIGHT_DATA); // the light data may be modified
         return lightData;
     }
 
     public void setLightData(LightData lightData) {
         this.lightData = lightData;
+        this.invalidateRaw(RAW_LIGHT_DATA);
     }
 
     public boolean isIgnoreOldData() {
@@ -20,6 +20,7 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.chat.RemoteChatSession;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.player.GameMode;
@@ -79,6 +80,13 @@ public class WrapperPlayServerPlayerInfoUpdate extends PacketWrapper<WrapperPlay
          */
         private boolean showHat;
 
+        // encoded forms of the profile and chat session as they have been read, these are written
+        // again instead of encoding the fields if they haven't been accessed
+        private byte @Nullable [] rawProfile;
+        private byte @Nullable [] rawChatSession;
+        // the version both have been encoded for, proxies may write the packet for another version
+        private @Nullable ServerVersion rawVersion;
+
         public PlayerInfo(UUID profileId) {
             this(new UserProfile(profileId, ""));
         }
@@ -128,6 +136,7 @@ public class WrapperPlayServerPlayerInfoUpdate extends PacketWrapper<WrapperPlay
         }
 
         public UserProfile getGameProfile() {
+            this.rawProfile = null; // the profile may be modified
             return profile;
         }
 
@@ -167,6 +176,7 @@ public class WrapperPlayServerPlayerInfoUpdate extends PacketWrapper<WrapperPlay
 
         public void setGameProfile(UserProfile gameProfile) {
             this.profile = gameProfile;
+            this.rawProfile = null;
         }
 
         public void setListed(boolean listed) {
@@ -187,6 +197,7 @@ public class WrapperPlayServerPlayerInfoUpdate extends PacketWrapper<WrapperPlay
 
         public void setChatSession(@Nullable RemoteChatSession chatSession) {
             this.chatSession = chatSession;
+            this.rawChatSession = null;
         }
 
         /**
@@ -242,7 +253,10 @@ public class WrapperPlayServerPlayerInfoUpdate extends PacketWrapper<WrapperPlay
             @Nullable Component displayName = null;
             int listOrder = 0;
             boolean showHat = false;
+            byte[] rawProfile = null;
+            byte[] rawChatSession = null;
             for (Action action : actions) {
+                int start = ByteBufHelper.readerIndex(wrapper.buffer);
                 switch (action) {
                     case ADD_PLAYER:
                         gameProfile.setUUID(uuid);
@@ -255,9 +269,11 @@ public class WrapperPlayServerPlayerInfoUpdate extends PacketWrapper<WrapperPlay
                             TextureProperty textureProperty = new TextureProperty(propertyName, propertyValue, propertySignature);
                             gameProfile.getTextureProperties().add(textureProperty);
                         }
+                        rawProfile = wrapper.copyReadBytes(start);
                         break;
                     case INITIALIZE_CHAT:
                         chatSession = wrapper.readOptional(PacketWrapper::readRemoteChatSession);
+                        rawChatSession = wrapper.copyReadBytes(start);
                         break;
                     case UPDATE_GAME_MODE:
                         gameMode = GameMode.getById(wrapper.readVarInt());
@@ -284,7 +300,11 @@ public class WrapperPlayServerPlayerInfoUpdate extends PacketWrapper<WrapperPlay
                         break;
                 }
             }
-            return new PlayerInfo(gameProfile, listed, latency, gameMode, displayName, chatSession, listOrder, showHat);
+            PlayerInfo info = new PlayerInfo(gameProfile, listed, latency, gameMode, displayName, chatSession, listOrder, showHat);
+            info.rawProfile = rawProfile;
+            info.rawChatSession = rawChatSession;
+            info.rawVersion = this.serverVersion;
+            return info;
         });
     }
 
@@ -293,17 +313,26 @@ public class WrapperPlayServerPlayerInfoUpdate extends PacketWrapper<WrapperPlay
         writeEnumSet(this.actions, Action.class);
         writeList(this.entries, (wrapper, playerInfo) -> {
             wrapper.writeUUID(playerInfo.getProfileId());
+            boolean raw = playerInfo.rawVersion == this.serverVersion;
             for (Action action : actions) {
                 switch (action) {
                     case ADD_PLAYER:
-                        wrapper.writeString(playerInfo.getGameProfile().getName(), 16);
-                        writeList(playerInfo.getGameProfile().getTextureProperties(), (w, textureProperty) -> {
+                        if (raw && playerInfo.rawProfile != null) {
+                            wrapper.writeBytes(playerInfo.rawProfile);
+                            break;
+                        }
+                        wrapper.writeString(playerInfo.profile.getName(), 16);
+                        writeList(playerInfo.profile.getTextureProperties(), (w, textureProperty) -> {
                             w.writeString(textureProperty.getName());
                             w.writeString(textureProperty.getValue());
                             w.writeOptional(textureProperty.getSignature(), PacketWrapper::writeString);
                         });
                         break;
                     case INITIALIZE_CHAT:
+                        if (raw && playerInfo.rawChatSession != null) {
+                            wrapper.writeBytes(playerInfo.rawChatSession);
+                            break;
+                        }
                         wrapper.writeOptional(playerInfo.getChatSession(), PacketWrapper::writeRemoteChatSession);
                         break;
                     case UPDATE_GAME_MODE:
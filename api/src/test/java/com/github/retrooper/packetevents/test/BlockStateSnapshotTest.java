@@ -0,0 +1,51 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState.MappingsBuilder;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BlockStateSnapshotTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test block state snapshots and nbt mappings load identically")
+    public void testSnapshotMatchesNbt() {
+        for (ClientVersion version : WrappedBlockState.getModernMappingVersions()) {
+            MappingsBuilder nbt = WrappedBlockState.readModernMappings(version, false);
+            MappingsBuilder snapshot = WrappedBlockState.readModernMappings(version, true);
+
+            // equality of states only depends on their type and properties
+            List<WrappedBlockState> states = snapshot.getStates();
+            assertEquals(nbt.getStates(), states, "states of " + version);
+            for (int id = 0; id < states.size(); id++) {
+                assertEquals(id, states.get(id).getGlobalId(), "global id of " + states.get(id));
+            }
+            assertEquals(nbt.getStateToIdMap(), snapshot.getStateToIdMap(), "global ids of " + version);
+            assertEquals(nbt.getDefaultStates(), snapshot.getDefaultStates(), "default states of " + version);
+        }
+    }
+}
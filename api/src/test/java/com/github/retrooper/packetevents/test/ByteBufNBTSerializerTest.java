@@ -0,0 +1,219 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByteArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTDouble;
+import com.github.retrooper.packetevents.protocol.nbt.NBTFloat;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTIntArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLong;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTShort;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ByteBufNBTSerializerTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test all tag types are serialized like the default serializer")
+    public void testTagTypes() throws IOException {
+        List<NBT> tags = new ArrayList<>();
+        tags.add(new NBTByte((byte) -5));
+        tags.add(new NBTShort((short) 12345));
+        tags.add(new NBTInt(-123456789));
+        tags.add(new NBTLong(0x1234_5678_9ABC_DEF0L));
+        tags.add(new NBTFloat(3.5f));
+        tags.add(new NBTDouble(-1.0E100));
+        tags.add(new NBTByteArray(new byte[]{1, 2, 3, -128}));
+        tags.add(new NBTByteArray(new byte[0]));
+        tags.add(new NBTString("text"));
+        tags.add(new NBTString(""));
+        // modified utf-8 encodes null chars and supplementary characters differently than utf-8
+        tags.add(new NBTString("äöü \u0000 € 😀"));
+        tags.add(new NBTIntArray(new int[]{Integer.MIN_VALUE, 0, Integer.MAX_VALUE}));
+        tags.add(new NBTLongArray(new long[]{Long.MIN_VALUE, 0L, Long.MAX_VALUE}));
+        tags.add(new NBTList<>(NBTType.END));
+        NBTList<NBTString> strings = NBTList.createStringList();
+        strings.addTag(new NBTString("a"));
+        strings.addTag(new NBTString("b"));
+        tags.add(strings);
+
+        NBTCompound compound = new NBTCompound();
+        for (int i = 0; i < tags.size(); i++) {
+            compound.setTag("tag" + i, tags.get(i));
+        }
+        // keys which are interned when reading
+        compound.setTag("text", new NBTString("hello"));
+        compound.setTag("color", new NBTString("red"));
+        NBTList<NBTCompound> compounds = NBTList.createCompoundList();
+        compounds.addTag(new NBTCompound());
+        compounds.addTag(compound.copy());
+        compound.setTag("compounds", compounds);
+        tags.add(new NBTCompound());
+        tags.add(compound);
+
+        for (NBT tag : tags) {
+            for (boolean named : new boolean[]{false, true}) {
+                byte[] expected = serializeDefault(tag, named);
+                ByteBuf buffer = Unpooled.buffer();
+                try {
+                    ByteBufNBTSerializer.INSTANCE.serializeTag(buffer, tag, named);
+                    assertArrayEquals(expected, ByteBufUtil.getBytes(buffer), () -> "Serialized " + tag);
+
+                    NBT read = ByteBufNBTSerializer.INSTANCE.deserializeTag(NBTLimiter.forBuffer(buffer), buffer, named);
+                    assertEquals(tag, read);
+                    assertEquals(0, buffer.readableBytes());
+                    assertEquals(tag, deserializeDefault(expected, named));
+                } finally {
+                    buffer.release();
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test the size limit is enforced")
+    public void testSizeLimit() throws IOException {
+        NBTCompound compound = new NBTCompound();
+        compound.setTag("data", new NBTByteArray(new byte[1024]));
+        assertLimitExceeded(compound, true, 512, NBTLimiter.DEFAULT_MAX_DEPTH);
+
+        NBTList<NBTString> strings = NBTList.createStringList();
+        for (int i = 0; i < 64; i++) {
+            strings.addTag(new NBTString("string " + i));
+        }
+        assertLimitExceeded(strings, false, 512, NBTLimiter.DEFAULT_MAX_DEPTH);
+    }
+
+    @Test
+    @DisplayName("Test the depth limit is enforced")
+    public void testDepthLimit() throws IOException {
+        NBTCompound compound = new NBTCompound();
+        NBTCompound child = compound;
+        for (int i = 0; i < 16; i++) {
+            NBTCompound next = new NBTCompound();
+            child.setTag("child", next);
+            child = next;
+        }
+        assertLimitExceeded(compound, true, NBTLimiter.DEFAULT_MAX_SIZE, 8);
+    }
+
+    @Test
+    @DisplayName("Test the readable bytes are checked")
+    public void testReadability() {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            buffer.writeByte(7); // byte array
+            buffer.writeInt(1 << 20); // length, but no content
+            assertThrows(IllegalArgumentException.class, () -> ByteBufNBTSerializer.INSTANCE
+                    .deserializeTag(NBTLimiter.forBuffer(buffer), buffer, false));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    @DisplayName("Test the name of the root tag is charged to the limiter")
+    public void testRootName() throws IOException {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            buffer.writeByte(10); // compound
+            buffer.writeShort(1000);
+            buffer.writeZero(1000); // name
+            buffer.writeByte(0); // end
+            // the empty compound itself is way smaller than the limit
+            assertThrows(IllegalArgumentException.class, () -> ByteBufNBTSerializer.INSTANCE
+                    .deserializeTag(NBTLimiter.forBuffer(buffer, 512), buffer, true));
+
+            buffer.readerIndex(0);
+            NBT tag = ByteBufNBTSerializer.INSTANCE.deserializeTag(NBTLimiter.forBuffer(buffer, 2048), buffer, true);
+            assertNotNull(tag);
+            assertFalse(buffer.isReadable());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static void assertLimitExceeded(NBT tag, boolean named, int maxBytes, int maxDepth) throws IOException {
+        byte[] data = serializeDefault(tag, named);
+        ByteBuf buffer = Unpooled.wrappedBuffer(data);
+        try {
+            // both serializers have to reject the tag
+            assertThrows(IllegalArgumentException.class, () -> ByteBufNBTSerializer.INSTANCE
+                    .deserializeTag(NBTLimiter.forBuffer(buffer, maxBytes, maxDepth), buffer, named));
+            buffer.readerIndex(0);
+            assertThrows(IllegalArgumentException.class, () -> DefaultNBTSerializer.INSTANCE
+                    .deserializeTag(NBTLimiter.forBuffer(buffer, maxBytes, maxDepth), new ByteBufInputStream(buffer), named));
+
+            // and accept it without limits
+            buffer.readerIndex(0);
+            assertEquals(tag, ByteBufNBTSerializer.INSTANCE.deserializeTag(NBTLimiter.noop(), buffer, named));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static byte[] serializeDefault(NBT tag, boolean named) throws IOException {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            DefaultNBTSerializer.INSTANCE.serializeTag(new DataOutputStream(new ByteBufOutputStream(buffer)), tag, named);
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static NBT deserializeDefault(byte[] data, boolean named) throws IOException {
+        ByteBuf buffer = Unpooled.wrappedBuffer(data);
+        try {
+            return DefaultNBTSerializer.INSTANCE.deserializeTag(NBTLimiter.forBuffer(buffer),
+                    new DataInputStream(new ByteBufInputStream(buffer)), named);
+        } finally {
+            buffer.release();
+        }
+    }
+}
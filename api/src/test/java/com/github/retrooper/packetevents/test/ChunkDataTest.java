@@ -0,0 +1,194 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.protocol.world.chunk.HeightmapType;
+import com.github.retrooper.packetevents.protocol.world.chunk.LightData;
+import com.github.retrooper.packetevents.protocol.world.chunk.TileEntity;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkData;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class ChunkDataTest extends BaseDummyAPITest {
+
+    private static final ClientVersion VERSION = ServerVersion.getLatest().toClientVersion();
+
+    @Test
+    @DisplayName("Test unchanged chunk data is written as read")
+    public void testWriteUntouched() throws PacketProcessException {
+        byte[] data = write(createColumn(), createLightData());
+        PacketSendEvent event = createEvent(data);
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(event);
+
+        assertArrayEquals(data, write(wrapper));
+        // reading the fields doesn't mark them as modified
+        assertEquals(3, wrapper.getColumn().getX());
+        assertArrayEquals(data, write(wrapper));
+    }
+
+    @Test
+    @DisplayName("Test re-encoding chunk data into the buffer it has been read from")
+    public void testReEncode() throws PacketProcessException {
+        byte[] data = write(createColumn(), createLightData());
+        PacketSendEvent event = createEvent(data);
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(event);
+
+        // this is what happens once all listeners have been called and the packet is marked for re-encoding
+        wrapper.releaseReadBuffer(true);
+        Object buffer = event.getByteBuf();
+        ByteBufHelper.clear(buffer);
+        wrapper.write();
+        assertArrayEquals(data, ByteBufUtil.getBytes((ByteBuf) buffer));
+        ByteBufHelper.release(buffer);
+    }
+
+    @Test
+    @DisplayName("Test only modified parts of the chunk data are encoded again")
+    public void testWriteModified() throws PacketProcessException {
+        Column column = createColumn();
+        LightData lightData = createLightData();
+        PacketSendEvent event = createEvent(write(column, lightData));
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(event);
+
+        wrapper.getColumn().getChunks()[2].set(1, 2, 3, 5);
+        column.getChunks()[2].set(1, 2, 3, 5);
+        assertArrayEquals(write(column, lightData), write(wrapper));
+
+        wrapper.getLightData().getSkyLightArray()[0][0] = 0x11;
+        lightData.getSkyLightArray()[0][0] = 0x11;
+        assertArrayEquals(write(column, lightData), write(wrapper));
+
+        // the modified block has been read back
+        WrapperPlayServerChunkData read = new WrapperPlayServerChunkData(createEvent(write(wrapper)));
+        assertEquals(5, read.getColumn().getChunks()[2].getBlockId(1, 2, 3));
+        assertEquals(column.getTileEntities()[0].getNBT(), read.getColumn().getTileEntities()[0].getNBT());
+    }
+
+    @Test
+    @DisplayName("Test released buffers are not written from")
+    public void testReleased() throws PacketProcessException {
+        byte[] data = write(createColumn(), createLightData());
+        PacketSendEvent event = createEvent(data);
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(event);
+
+        // the packet is passed on as is, the wrapper has to encode all fields from now on
+        wrapper.releaseReadBuffer(false);
+        ByteBufHelper.release(event.getByteBuf());
+        assertFalse(ByteBufHelper.refCnt(event.getByteBuf()) > 0);
+        assertArrayEquals(data, write(wrapper));
+    }
+
+    @Test
+    @DisplayName("Test chunk data is encoded again when written for another version")
+    public void testWriteOtherVersion() throws PacketProcessException {
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(
+                createEvent(write(createColumn(), createLightData())));
+        // proxies write the packet for the version of the receiving client
+        wrapper.setServerVersion(ServerVersion.V_1_21_4);
+
+        WrapperPlayServerChunkData expected = new WrapperPlayServerChunkData(createColumn(), createLightData());
+        expected.setServerVersion(ServerVersion.V_1_21_4);
+        byte[] data = write(expected);
+        // heightmaps are encoded differently since 1.21.5
+        assertFalse(Arrays.equals(write(createColumn(), createLightData()), data));
+        assertArrayEquals(data, write(wrapper));
+    }
+
+    private static Column createColumn() {
+        BaseChunk[] chunks = new BaseChunk[24];
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk_v1_18 chunk = new Chunk_v1_18();
+            if (i < 4) {
+                for (int x = 0; x < 16; x++) {
+                    chunk.set(x, i, x, 1 + x % 3);
+                }
+            }
+            chunks[i] = chunk;
+        }
+        NBTCompound nbt = new NBTCompound();
+        nbt.setTag("id", new NBTString("minecraft:chest"));
+        TileEntity[] tileEntities = {new TileEntity((byte) 0x12, (short) 64, 2, nbt)};
+        long[] heights = new long[37];
+        Arrays.fill(heights, 0x0102030405060708L);
+        return new Column(3, -7, true, chunks, tileEntities,
+                Collections.singletonMap(HeightmapType.MOTION_BLOCKING, heights));
+    }
+
+    private static LightData createLightData() {
+        BitSet skyLightMask = new BitSet();
+        skyLightMask.set(5);
+        byte[] skyLight = new byte[2048];
+        Arrays.fill(skyLight, (byte) 0xFF);
+        return new LightData(false, new BitSet(), skyLightMask, new BitSet(), new BitSet(),
+                1, 0, new byte[][]{skyLight}, new byte[0][]);
+    }
+
+    private static byte[] write(Column column, LightData lightData) {
+        return write(new WrapperPlayServerChunkData(column, lightData));
+    }
+
+    private static byte[] write(WrapperPlayServerChunkData wrapper) {
+        ByteBuf buffer = Unpooled.buffer();
+        wrapper.buffer = buffer;
+        wrapper.write();
+        byte[] data = ByteBufUtil.getBytes(buffer);
+        buffer.release();
+        return data;
+    }
+
+    private static PacketSendEvent createEvent(byte[] data) throws PacketProcessException {
+        User user = new User(null, ConnectionState.PLAY, VERSION, new UserProfile(UUID.randomUUID(), "test")) {
+            @Override
+            public int getTotalWorldHeight() {
+                // there is no injector to determine the version with
+                return this.getTotalWorldHeight(VERSION);
+            }
+        };
+        return new PacketSendEvent(PacketType.Play.Server.CHUNK_DATA.getId(VERSION), PacketType.Play.Server.CHUNK_DATA,
+                ServerVersion.getLatest(), null, user, null, Unpooled.copiedBuffer(data)) {
+        };
+    }
+}
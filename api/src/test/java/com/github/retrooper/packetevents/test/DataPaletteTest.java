@@ -0,0 +1,187 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.GlobalPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.ListPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.MapPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.SingletonPalette;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DataPaletteTest {
+
+    @Test
+    @DisplayName("Test map palette ids")
+    public void testMapPalette() {
+        MapPalette palette = new MapPalette(6);
+        // states which collide in the hash table are still told apart
+        for (int i = 0; i < 64; i++) {
+            assertEquals(i, palette.stateToId(i * 128));
+        }
+        assertEquals(64, palette.size());
+        for (int i = 0; i < 64; i++) {
+            assertEquals(i, palette.stateToId(i * 128));
+            assertEquals(i * 128, palette.idToState(i));
+        }
+        // the palette is full
+        assertEquals(-1, palette.stateToId(1));
+        assertEquals(64, palette.size());
+        assertEquals(0, palette.idToState(64));
+        assertEquals(0, palette.idToState(-1));
+        assertEquals(6, palette.getBits());
+    }
+
+    @Test
+    @DisplayName("Test replacing all states of a palette")
+    public void testSetAll() {
+        PaletteType type = PaletteType.CHUNK;
+        DataPalette palette = type.create();
+        assertThrows(IllegalArgumentException.class, () -> palette.setAll(new int[type.getStorageSize() - 1]));
+
+        // few distinct states fit into a list palette
+        int[] states = createStates(type, 10);
+        palette.setAll(states);
+        assertInstanceOf(ListPalette.class, palette.palette);
+        assertStates(type, states, palette);
+
+        // the palette grows while the states are added
+        states = createStates(type, 100);
+        palette.setAll(states);
+        assertInstanceOf(MapPalette.class, palette.palette);
+        assertStates(type, states, palette);
+
+        states = createStates(type, 1000);
+        palette.setAll(states);
+        assertInstanceOf(GlobalPalette.class, palette.palette);
+        assertStates(type, states, palette);
+
+        // the palette is rebuilt, so it shrinks again
+        states = createStates(type, 2);
+        palette.setAll(states);
+        assertInstanceOf(ListPalette.class, palette.palette);
+        assertEquals(2, palette.palette.size());
+        assertStates(type, states, palette);
+    }
+
+    @Test
+    @DisplayName("Test replacing all states with an operator")
+    public void testReplaceAll() {
+        PaletteType type = PaletteType.CHUNK;
+        // every state gets a new state of its own
+        IntUnaryOperator distinct = state -> state + 3;
+        // all states are merged into two
+        IntUnaryOperator merging = state -> state % 2 == 0 ? 4 : 9;
+
+        // chunks filled with a single state are sent without a storage
+        DataPalette single = new DataPalette(new SingletonPalette(1), null, type);
+        single.replaceAll(distinct);
+        assertInstanceOf(SingletonPalette.class, single.palette);
+        assertStates(type, apply(createStates(type, 1), distinct), single);
+
+        DataPalette palette = type.create();
+
+        for (int distinctStates : new int[]{10, 100, 1000}) {
+            int[] states = createStates(type, distinctStates);
+            palette.setAll(states);
+            Class<?> paletteClass = palette.palette.getClass();
+            int[] calls = {0};
+            palette.replaceAll(state -> {
+                calls[0]++;
+                return distinct.applyAsInt(state);
+            });
+            // the palette is rewritten without touching the storage
+            assertInstanceOf(paletteClass, palette.palette);
+            if (!(palette.palette instanceof GlobalPalette)) {
+                assertEquals(distinctStates, calls[0]);
+                assertEquals(distinctStates, palette.palette.size());
+            }
+            states = apply(states, distinct);
+            assertStates(type, states, palette);
+
+            palette.replaceAll(merging);
+            assertInstanceOf(paletteClass, palette.palette);
+            if (!(palette.palette instanceof GlobalPalette)) {
+                assertEquals(2, palette.palette.size());
+            }
+            assertStates(type, apply(states, merging), palette);
+        }
+    }
+
+    @Test
+    @DisplayName("Test iterating over all states")
+    public void testForEachState() {
+        PaletteType type = PaletteType.CHUNK;
+        assertForEachState(createStates(type, 1), new DataPalette(new SingletonPalette(1), null, type));
+        DataPalette palette = type.create();
+        assertForEachState(new int[type.getStorageSize()], palette);
+
+        for (int distinctStates : new int[]{10, 100, 1000}) {
+            int[] states = createStates(type, distinctStates);
+            palette.setAll(states);
+            assertForEachState(states, palette);
+        }
+    }
+
+    private static int[] apply(int[] states, IntUnaryOperator operator) {
+        int[] result = new int[states.length];
+        for (int i = 0; i < states.length; i++) {
+            result[i] = operator.applyAsInt(states[i]);
+        }
+        return result;
+    }
+
+    private static void assertForEachState(int[] states, DataPalette palette) {
+        int[] index = {0};
+        palette.forEachState(state -> {
+            assertEquals(states[index[0]], state, "state at index " + index[0]);
+            index[0]++;
+        });
+        assertEquals(states.length, index[0]);
+    }
+
+    private static int[] createStates(PaletteType type, int distinctStates) {
+        int[] states = new int[type.getStorageSize()];
+        for (int i = 0; i < states.length; i++) {
+            // runs of the same state, like in real chunks
+            states[i] = ((i / 3) % distinctStates) * 7 + 1;
+        }
+        return states;
+    }
+
+    private static void assertStates(PaletteType type, int[] states, DataPalette palette) {
+        int size = 1 << type.getBitShift();
+        for (int y = 0; y < size; y++) {
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    int index = (y << type.getBitShift() | z) << type.getBitShift() | x;
+                    assertEquals(states[index], palette.get(x, y, z));
+                }
+            }
+        }
+    }
+}
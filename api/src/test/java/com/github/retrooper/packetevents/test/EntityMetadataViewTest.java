@@ -0,0 +1,179 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityMetadataView;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EntityMetadataViewTest extends BaseDummyAPITest {
+
+    private static final int ENTITY_ID = 1234;
+
+    @Test
+    @DisplayName("Test reading and patching modern entity metadata")
+    public void testModern() {
+        testLayout(ServerVersion.getLatest());
+    }
+
+    @Test
+    @DisplayName("Test reading and patching legacy entity metadata")
+    public void testLegacy() {
+        testLayout(ServerVersion.V_1_8_8);
+    }
+
+    private static void testLayout(ServerVersion version) {
+        ByteBuf buffer = write(version, createMetadata());
+        try {
+            EntityMetadataView view = EntityMetadataView.of(buffer, version);
+            int readerIndex = buffer.readerIndex();
+            assertEquals(ENTITY_ID, view.getEntityId());
+            assertEquals(5, view.size());
+            assertSame(EntityDataTypes.STRING, view.getType(2));
+            assertNull(view.getType(5));
+            assertFalse(view.has(5));
+            assertEquals((byte) 0x01, view.getByte(0));
+            assertEquals(300, view.getInt(1));
+            assertEquals("custom name", view.getValue(2));
+            // entries after the variable length string are found as well
+            assertEquals(1.5f, view.getFloat(3));
+            assertEquals(7, view.getInt(4));
+            assertThrows(IllegalArgumentException.class, () -> view.getFloat(0));
+            assertThrows(IllegalArgumentException.class, () -> view.getByte(5));
+
+            view.setByte(0, (byte) 0x20);
+            view.setInt(1, 200);
+            view.setFloat(3, -2.25f);
+            view.setInt(4, 9);
+            assertEquals(readerIndex, buffer.readerIndex());
+
+            List<EntityData<?>> metadata = read(version, buffer);
+            assertEquals((byte) 0x20, metadata.get(0).getValue());
+            assertEquals(200, metadata.get(1).getValue());
+            assertEquals("custom name", metadata.get(2).getValue());
+            assertEquals(-2.25f, metadata.get(3).getValue());
+            assertEquals(9, metadata.get(4).getValue());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    @DisplayName("Test patching ints into the length of the encoded VarInt")
+    public void testSetIntPadding() {
+        ServerVersion version = ServerVersion.getLatest();
+        ByteBuf buffer = write(version, createMetadata());
+        try {
+            EntityMetadataView view = EntityMetadataView.of(buffer, version);
+            int length = buffer.readableBytes();
+
+            // 300 is encoded with two bytes, 5 is padded to two bytes
+            view.setInt(1, 5);
+            assertEquals(5, view.getInt(1));
+            assertEquals(length, buffer.readableBytes());
+            assertEquals(5, read(version, buffer).get(1).getValue());
+            assertEquals(1.5f, view.getFloat(3));
+
+            // the largest value fitting into two bytes
+            view.setInt(1, (1 << 14) - 1);
+            assertEquals((1 << 14) - 1, read(version, buffer).get(1).getValue());
+
+            // neither fits into two bytes, the buffer is left untouched
+            byte[] data = ByteBufUtil.getBytes(buffer);
+            assertThrows(IllegalArgumentException.class, () -> view.setInt(1, 1 << 14));
+            assertThrows(IllegalArgumentException.class, () -> view.setInt(1, -1));
+            assertThrows(IllegalArgumentException.class, () -> view.setInt(4, 128));
+            assertArrayEquals(data, ByteBufUtil.getBytes(buffer));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    @DisplayName("Test setting and clearing entity flags")
+    public void testSetFlag() {
+        ServerVersion version = ServerVersion.getLatest();
+        ByteBuf buffer = write(version, createMetadata());
+        try {
+            EntityMetadataView view = EntityMetadataView.of(buffer, version);
+            assertTrue(view.getFlag(0, 0x01));
+            assertFalse(view.getFlag(0, 0x40));
+
+            view.setFlag(0, 0x40, true);
+            assertTrue(view.getFlag(0, 0x40));
+            assertTrue(view.getFlag(0, 0x41));
+            view.setFlag(0, 0x01, false);
+            assertFalse(view.getFlag(0, 0x01));
+            assertFalse(view.getFlag(0, 0x41));
+            assertEquals((byte) 0x40, read(version, buffer).get(0).getValue());
+            // only byte entries hold flags, the other entries are left untouched
+            assertThrows(IllegalArgumentException.class, () -> view.setFlag(1, 0x01, true));
+            assertEquals(300, view.getInt(1));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static List<EntityData<?>> createMetadata() {
+        return Arrays.asList(
+                new EntityData<>(0, EntityDataTypes.BYTE, (byte) 0x01),
+                new EntityData<>(1, EntityDataTypes.INT, 300),
+                new EntityData<>(2, EntityDataTypes.STRING, "custom name"),
+                new EntityData<>(3, EntityDataTypes.FLOAT, 1.5f),
+                new EntityData<>(4, EntityDataTypes.INT, 7)
+        );
+    }
+
+    private static ByteBuf write(ServerVersion version, List<EntityData<?>> metadata) {
+        ByteBuf buffer = Unpooled.buffer();
+        PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(buffer, version);
+        if (version.isNewerThanOrEquals(ServerVersion.V_1_8)) {
+            wrapper.writeVarInt(ENTITY_ID);
+        } else {
+            wrapper.writeInt(ENTITY_ID);
+        }
+        wrapper.writeEntityMetadata(metadata);
+        return buffer;
+    }
+
+    private static List<EntityData<?>> read(ServerVersion version, ByteBuf buffer) {
+        PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(buffer.duplicate(), version);
+        assertEquals(ENTITY_ID, version.isNewerThanOrEquals(ServerVersion.V_1_8) ? wrapper.readVarInt() : wrapper.readInt());
+        return wrapper.readEntityMetadata();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerCommon;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventManagerTest extends BaseDummyAPITest {
+
+    private static final ClientVersion VERSION = ClientVersion.V_1_21;
+
+    @Test
+    @DisplayName("Test per packet type listener tables")
+    public void testPacketTypeListeners() throws PacketProcessException {
+        EventManager eventManager = new EventManager();
+        List<String> calls = new ArrayList<>();
+        PacketListenerCommon monitor = eventManager.registerListener(new RecordingListener(
+                calls, "monitor", PacketListenerPriority.MONITOR, PacketType.Play.Client.CHAT_MESSAGE));
+        PacketListenerCommon lowest = eventManager.registerListener(new RecordingListener(
+                calls, "lowest", PacketListenerPriority.LOWEST, PacketType.Play.Client.CHAT_MESSAGE));
+        PacketListenerCommon all = eventManager.registerListener(new RecordingListener(
+                calls, "all", PacketListenerPriority.NORMAL));
+
+        assertTrue(eventManager.hasListeners(ConnectionState.PLAY, PacketType.Play.Client.CHAT_MESSAGE));
+        assertTrue(eventManager.hasListeners(ConnectionState.PLAY, PacketType.Play.Client.KEEP_ALIVE));
+
+        // listeners are only called for their packet types, still ordered by priority
+        eventManager.callEvent(createEvent(PacketType.Play.Client.CHAT_MESSAGE));
+        assertEquals(Arrays.asList("lowest", "all", "monitor"), calls);
+        calls.clear();
+        eventManager.callEvent(createEvent(PacketType.Play.Client.KEEP_ALIVE));
+        assertEquals(Arrays.asList("all"), calls);
+        calls.clear();
+
+        eventManager.unregisterListener(all);
+        assertTrue(eventManager.hasListeners(ConnectionState.PLAY, PacketType.Play.Client.CHAT_MESSAGE));
+        assertFalse(eventManager.hasListeners(ConnectionState.PLAY, PacketType.Play.Client.KEEP_ALIVE));
+        eventManager.callEvent(createEvent(PacketType.Play.Client.KEEP_ALIVE));
+        assertTrue(calls.isEmpty());
+
+        eventManager.unregisterListeners(monitor, lowest);
+        assertFalse(eventManager.hasListeners(ConnectionState.PLAY, PacketType.Play.Client.CHAT_MESSAGE));
+    }
+
+    @Test
+    @DisplayName("Test listened packet id bitsets")
+    public void testListenedPacketIds() {
+        EventManager eventManager = new EventManager();
+        int chatId = PacketType.Play.Client.CHAT_MESSAGE.getId(VERSION);
+        int keepAliveId = PacketType.Play.Client.KEEP_ALIVE.getId(VERSION);
+        int serverKeepAliveId = PacketType.Play.Server.KEEP_ALIVE.getId(VERSION);
+
+        assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, chatId));
+        assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, keepAliveId));
+        // unknown packet ids are always processed
+        assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, 0x7FFF));
+
+        PacketListenerCommon chatListener = eventManager.registerListener(new RecordingListener(
+                new ArrayList<>(), "chat", PacketListenerPriority.NORMAL, PacketType.Play.Client.CHAT_MESSAGE));
+        assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, chatId));
+        assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, keepAliveId));
+        assertFalse(eventManager.hasListeners(PacketSide.SERVER, ConnectionState.PLAY, VERSION, serverKeepAliveId));
+        // the packet id belongs to another packet type in an older version
+        ClientVersion oldVersion = ClientVersion.V_1_8;
+        int oldChatId = PacketType.Play.Client.CHAT_MESSAGE.getId(oldVersion);
+        assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, oldVersion, oldChatId));
+        assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, oldVersion,
+                PacketType.Play.Client.KEEP_ALIVE.getId(oldVersion)));
+
+        PacketListenerCommon allListener = eventManager.registerListener(new RecordingListener(
+                new ArrayList<>(), "all", PacketListenerPriority.NORMAL));
+        assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, keepAliveId));
+        assertTrue(eventManager.hasListeners(PacketSide.SERVER, ConnectionState.PLAY, VERSION, serverKeepAliveId));
+
+        eventManager.unregisterListener(allListener);
+        assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, chatId));
+        assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, keepAliveId));
+
+        eventManager.unregisterListener(chatListener);
+        assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, chatId));
+
+        eventManager.registerListeners(chatListener, allListener);
+        eventManager.unregisterAllListeners();
+        assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, chatId));
+        assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, 0x7FFF));
+    }
+
+    private static PacketReceiveEvent createEvent(PacketTypeCommon packetType) throws PacketProcessException {
+        User user = new User(null, ConnectionState.PLAY, VERSION, new UserProfile(UUID.randomUUID(), "test"));
+        return new PacketReceiveEvent(packetType.getId(VERSION), packetType, ServerVersion.getLatest(),
+                null, user, null, null) {
+        };
+    }
+
+    private static final class RecordingListener extends PacketListenerAbstract {
+
+        private final List<String> calls;
+        private final String name;
+
+        private RecordingListener(List<String> calls, String name, PacketListenerPriority priority,
+                                  PacketTypeCommon... packetTypes) {
+            super(priority, packetTypes);
+            this.calls = calls;
+            this.name = name;
+        }
+
+        private RecordingListener(List<String> calls, String name, PacketListenerPriority priority) {
+            super(priority);
+            this.calls = calls;
+            this.name = name;
+        }
+
+        @Override
+        public void onPacketReceive(PacketReceiveEvent event) {
+            this.calls.add(this.name);
+        }
+    }
+}
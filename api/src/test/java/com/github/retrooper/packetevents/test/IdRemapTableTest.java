@@ -0,0 +1,130 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.BlockFace;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.GlobalPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
+import com.github.retrooper.packetevents.protocol.world.chunk.storage.BaseStorage;
+import com.github.retrooper.packetevents.protocol.world.chunk.storage.BitStorage;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateType;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.mappings.IdRemapTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdRemapTableTest extends BaseDummyAPITest {
+
+    private static final ClientVersion OLD_VERSION = ClientVersion.V_1_13;
+    private static final ClientVersion NEW_VERSION = ClientVersion.V_1_21_9;
+
+    @Test
+    @DisplayName("Test remapping a global palette section to a newer version")
+    public void testRemapGlobalSection() {
+        IdRemapTable table = WrappedBlockState.getRemapTable(OLD_VERSION, NEW_VERSION);
+        int oldBits = WrappedBlockState.getRemapTable(OLD_VERSION, OLD_VERSION).getTargetBitsPerEntry();
+        // the ids of the newer version don't fit into the bits of the old version
+        assertTrue(table.getTargetBitsPerEntry() > oldBits);
+
+        WrappedBlockState[] states = createStates();
+        int[] ids = fill(states);
+        BitStorage storage = new BitStorage(oldBits, ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            storage.set(i, ids[i]);
+        }
+        DataPalette palette = new DataPalette(GlobalPalette.INSTANCE, storage, PaletteType.CHUNK);
+
+        table.remapAll(palette);
+        assertEquals(table.getTargetBitsPerEntry(), palette.storage.getBitsPerEntry());
+        assertRemapped(states, palette);
+    }
+
+    @Test
+    @DisplayName("Test remapping a list palette section to a newer version")
+    public void testRemapListSection() {
+        WrappedBlockState[] states = createStates();
+        DataPalette palette = PaletteType.CHUNK.create();
+        palette.setAll(fill(states));
+        int bits = palette.storage.getBitsPerEntry();
+
+        WrappedBlockState.getRemapTable(OLD_VERSION, NEW_VERSION).remapAll(palette);
+        assertEquals(bits, palette.storage.getBitsPerEntry());
+        assertRemapped(states, palette);
+    }
+
+    @Test
+    @DisplayName("Test remapping a storage of global ids to a newer version")
+    public void testRemapStorage() {
+        IdRemapTable table = WrappedBlockState.getRemapTable(OLD_VERSION, NEW_VERSION);
+        WrappedBlockState[] states = createStates();
+        int[] ids = fill(states);
+        BitStorage storage = new BitStorage(
+                WrappedBlockState.getRemapTable(OLD_VERSION, OLD_VERSION).getTargetBitsPerEntry(), ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            storage.set(i, ids[i]);
+        }
+
+        BaseStorage remapped = table.remapAll(storage);
+        assertNotSame(storage, remapped);
+        assertInstanceOf(BitStorage.class, remapped);
+        assertEquals(table.getTargetBitsPerEntry(), remapped.getBitsPerEntry());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(states[i % states.length], WrappedBlockState.getByGlobalId(NEW_VERSION, remapped.get(i), false));
+        }
+    }
+
+    private static WrappedBlockState[] createStates() {
+        WrappedBlockState stairs = WrappedBlockState.getDefaultState(OLD_VERSION, StateTypes.OAK_STAIRS, true);
+        stairs.setFacing(BlockFace.EAST);
+        StateType[] types = {StateTypes.STONE, StateTypes.REDSTONE_WIRE, StateTypes.STRUCTURE_BLOCK};
+        WrappedBlockState[] states = new WrappedBlockState[types.length + 1];
+        for (int i = 0; i < types.length; i++) {
+            states[i] = WrappedBlockState.getDefaultState(OLD_VERSION, types[i], false);
+        }
+        states[types.length] = stairs;
+        return states;
+    }
+
+    private static int[] fill(WrappedBlockState[] states) {
+        int[] ids = new int[PaletteType.CHUNK.getStorageSize()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = states[i % states.length].getGlobalId();
+        }
+        return ids;
+    }
+
+    private static void assertRemapped(WrappedBlockState[] states, DataPalette palette) {
+        int[] index = {0};
+        palette.forEachState(id -> {
+            WrappedBlockState state = WrappedBlockState.getByGlobalId(NEW_VERSION, id, false);
+            // equality only depends on the type and properties
+            assertEquals(states[index[0]++ % states.length], state);
+        });
+        assertEquals(PaletteType.CHUNK.getStorageSize(), index[0]);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.util.IntWeakValueMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class IntWeakValueMapTest {
+
+    @Test
+    @DisplayName("Test removing entries from probe sequences")
+    public void testRemove() {
+        IntWeakValueMap<Object> map = new IntWeakValueMap<>();
+        Map<Integer, Object> expected = new HashMap<>();
+        Random random = new Random(42);
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // small and clustered keys, like entity ids, produce long probe sequences
+            int key = i < 1000 ? i : random.nextInt();
+            Object value = new Object();
+            map.put(key, value);
+            expected.put(key, value);
+            keys.add(key);
+        }
+        assertEquals(expected.size(), map.size());
+
+        // entries behind a removed one are shifted back and still have to be found
+        Collections.shuffle(keys, random);
+        for (int i = 0; i < keys.size(); i++) {
+            int key = keys.get(i);
+            if (i % 3 != 0) {
+                assertSame(expected.remove(key), map.remove(key));
+                assertNull(map.remove(key));
+            }
+            if (i % 100 == 0) {
+                assertEntries(expected, map);
+            }
+        }
+        assertEntries(expected, map);
+        assertEquals(expected.size(), map.size());
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(keys.get(0)));
+    }
+
+    @Test
+    @DisplayName("Test collected values are purged when the table grows")
+    public void testRehash() throws InterruptedException {
+        IntWeakValueMap<Object> map = new IntWeakValueMap<>();
+        List<Object> live = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Object value = new Object();
+            if (i % 2 == 0) {
+                live.add(value);
+            }
+            map.put(i, value);
+        }
+        assertEquals(16, map.size());
+        assumeTrue(collectGarbage(), "the garbage collector didn't run");
+
+        // the 17th entry exceeds the load factor, only the live entries are taken over
+        Object value = new Object();
+        map.put(16, value);
+        assertEquals(live.size() + 1, map.size());
+        for (int i = 0; i < 16; i++) {
+            if (i % 2 == 0) {
+                assertSame(live.get(i / 2), map.get(i));
+            } else {
+                assertNull(map.get(i));
+            }
+        }
+        assertSame(value, map.get(16));
+    }
+
+    @Test
+    @DisplayName("Test collected values are removed when they are looked up")
+    public void testGetCollected() throws InterruptedException {
+        IntWeakValueMap<Object> map = new IntWeakValueMap<>();
+        Object value = new Object();
+        map.put(1, value);
+        map.put(2, new Object());
+        assumeTrue(collectGarbage(), "the garbage collector didn't run");
+
+        assertEquals(2, map.size());
+        assertNull(map.get(2));
+        assertEquals(1, map.size());
+        assertSame(value, map.get(1));
+        assertSame(value, map.asMap().get(1));
+        assertEquals(Collections.singletonMap(1, value), new HashMap<>(map.asMap()));
+    }
+
+    private static void assertEntries(Map<Integer, Object> expected, IntWeakValueMap<Object> map) {
+        for (Map.Entry<Integer, Object> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), map.get(entry.getKey()), "entry " + entry.getKey());
+        }
+        assertEquals(expected, new HashMap<>(map.asMap()));
+    }
+
+    private static boolean collectGarbage() throws InterruptedException {
+        WeakReference<Object> canary = new WeakReference<>(new Object());
+        for (int i = 0; i < 20 && canary.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+        return canary.get() == null;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.nbt.LazyNBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTIntArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyNBTCompoundTest extends BaseDummyAPITest {
+
+    private static final ServerVersion VERSION = ServerVersion.V_1_21;
+
+    @Test
+    @DisplayName("Test lazily reading tags")
+    public void testGet() {
+        NBTCompound expected = createCompound();
+        LazyNBTCompound compound = read(write(expected));
+
+        assertEquals(4, compound.size());
+        assertEquals(new HashSet<>(Arrays.asList("name", "count", "values", "child")), compound.getTagNames());
+        assertTrue(compound.contains("count"));
+        assertFalse(compound.contains("missing"));
+        assertFalse(compound.isEmpty());
+
+        assertEquals("lazy", compound.getStringTagValueOrNull("name"));
+        assertEquals(new NBTInt(42), compound.getTagOrNull("count"));
+        assertNull(compound.getTagOrNull("missing"));
+        // numbers and strings can't be modified, so the encoded form is still valid
+        assertNotNull(compound.getUnmodifiedData());
+
+        assertEquals(expected, compound);
+        assertEquals(expected.hashCode(), compound.hashCode());
+    }
+
+    @Test
+    @DisplayName("Test unchanged compounds are written as read")
+    public void testWriteUnchanged() {
+        byte[] data = write(createCompound());
+        LazyNBTCompound compound = read(data);
+        assertArrayEquals(data, write(compound));
+
+        compound.getTagOrNull("count");
+        assertArrayEquals(data, write(compound));
+
+        // copies share the encoded form
+        NBTCompound copy = compound.copy();
+        assertInstanceOf(LazyNBTCompound.class, copy);
+        assertArrayEquals(data, write(copy));
+    }
+
+    @Test
+    @DisplayName("Test modifying lazily read compounds")
+    public void testModify() {
+        NBTCompound expected = createCompound();
+        LazyNBTCompound compound = read(write(expected));
+
+        // handing out a mutable tag counts as a modification
+        NBTCompound child = compound.getCompoundTagOrNull("child");
+        assertNotNull(child);
+        assertNull(compound.getUnmodifiedData());
+        child.setTag("added", new NBTInt(1));
+        expected.getCompoundTagOrNull("child").setTag("added", new NBTInt(1));
+        assertEquals(expected, read(write(compound)));
+
+        compound = read(write(expected));
+        compound.setTag("name", new NBTString("changed"));
+        expected.setTag("name", new NBTString("changed"));
+        assertNull(compound.getUnmodifiedData());
+        assertEquals(expected, read(write(compound)));
+
+        compound = read(write(expected));
+        assertEquals(new NBTInt(42), compound.removeTag("count"));
+        assertNull(compound.removeTag("missing"));
+        expected.removeTag("count");
+        assertFalse(compound.contains("count"));
+        assertEquals(3, compound.size());
+        assertEquals(expected, read(write(compound)));
+    }
+
+    @Test
+    @DisplayName("Test lazily reading empty compounds")
+    public void testEmpty() {
+        LazyNBTCompound compound = read(write(new NBTCompound()));
+        assertTrue(compound.isEmpty());
+        assertEquals(0, compound.size());
+        assertEquals(new NBTCompound(), compound);
+    }
+
+    @Test
+    @DisplayName("Test the root name of older versions is checked against the limiter")
+    public void testRootName() {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            NBTCodec.writeNBTToBuffer(buffer, ServerVersion.V_1_20, createCompound());
+            NBT tag = NBTCodec.readLazyNBTFromBuffer(buffer, ServerVersion.V_1_20);
+            assertEquals(createCompound(), assertInstanceOf(LazyNBTCompound.class, tag));
+
+            // a root name longer than the packet
+            buffer.clear().writeByte(10).writeShort(0xFFFF).writeByte(0);
+            assertThrows(IllegalArgumentException.class,
+                    () -> NBTCodec.readLazyNBTFromBuffer(buffer, ServerVersion.V_1_20));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static NBTCompound createCompound() {
+        NBTCompound compound = new NBTCompound();
+        compound.setTag("name", new NBTString("lazy"));
+        compound.setTag("count", new NBTInt(42));
+        compound.setTag("values", new NBTIntArray(new int[]{1, 2, 3}));
+        NBTCompound child = new NBTCompound();
+        NBTList<NBTString> list = NBTList.createStringList();
+        list.addTag(new NBTString("entry"));
+        child.setTag("list", list);
+        compound.setTag("child", child);
+        return compound;
+    }
+
+    private static byte[] write(NBT tag) {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            NBTCodec.writeNBTToBuffer(buffer, VERSION, tag);
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static LazyNBTCompound read(byte[] data) {
+        ByteBuf buffer = Unpooled.wrappedBuffer(data);
+        try {
+            NBT tag = NBTCodec.readLazyNBTFromBuffer(buffer, VERSION);
+            assertFalse(buffer.isReadable());
+            return assertInstanceOf(LazyNBTCompound.class, tag);
+        } finally {
+            buffer.release();
+        }
+    }
+}
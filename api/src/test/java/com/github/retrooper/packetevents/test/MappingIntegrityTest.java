@@ -13,12 +13,16 @@ import com.github.retrooper.packetevents.protocol.world.states.enums.Orientation
 import com.github.retrooper.packetevents.protocol.world.states.enums.South;
 import com.github.retrooper.packetevents.protocol.world.states.enums.West;
 import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateValue;
 import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class MappingIntegrityTest extends BaseDummyAPITest {
 
@@ -102,4 +106,36 @@ public class MappingIntegrityTest extends BaseDummyAPITest {
         assertEquals("stone", StateTypes.STONE.createBlockState().toString());
         assertEquals("acacia_log[axis=y]", StateTypes.ACACIA_LOG.createBlockState().toString());
     }
+
+    @Test
+    @DisplayName("Test shared block state transitions")
+    public void testBlockStateTransitions() {
+        WrappedBlockState state = StateTypes.PALE_OAK_LOG.createBlockState(ClientVersion.V_1_21_2);
+        WrappedBlockState changed = state.with(StateValue.AXIS, Axis.Z);
+        assertEquals(159, changed.getGlobalId());
+        assertEquals(158, state.getGlobalId());
+        assertSame(changed, WrappedBlockState.getByGlobalId(ClientVersion.V_1_21_2, 159, false));
+
+        // shared states may not be modified, their clones may
+        assertThrows(UnsupportedOperationException.class, () -> changed.setAxis(Axis.X));
+        assertEquals(Axis.Z, changed.getAxis());
+        WrappedBlockState copy = changed.clone();
+        copy.setAxis(Axis.X);
+        assertEquals(Axis.Z, changed.getAxis());
+        assertEquals(157, copy.getGlobalId());
+    }
+
+    @Test
+    @DisplayName("Test cloning air by global id")
+    public void testCloneAir() {
+        WrappedBlockState air = WrappedBlockState.getByGlobalId(ClientVersion.V_1_21_2, 0, false);
+        assertSame(air, WrappedBlockState.getByGlobalId(ClientVersion.V_1_21_2, 0, false));
+        assertThrows(UnsupportedOperationException.class, () -> air.setAxis(Axis.X));
+
+        WrappedBlockState clone = WrappedBlockState.getByGlobalId(ClientVersion.V_1_21_2, 0, true);
+        assertNotSame(air, clone);
+        assertEquals(air, clone);
+        clone.setAxis(Axis.X); // doesn't change anything for air, but mustn't throw either
+        assertEquals(0, clone.getGlobalId());
+    }
 }
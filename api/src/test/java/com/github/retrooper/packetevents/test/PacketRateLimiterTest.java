@@ -0,0 +1,160 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.util.PacketRateLimiter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PacketRateLimiterTest extends BaseDummyAPITest {
+
+    private static final ClientVersion VERSION = ClientVersion.V_1_21;
+    private static final long START = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Test refilling the bucket of a packet type")
+    public void testRefill() {
+        PacketRateLimiter limiter = new PacketRateLimiter().action(PacketRateLimiter.Action.DROP)
+                .limit(PacketType.Play.Client.CHAT_MESSAGE, 10D, 2D);
+        User user = createUser();
+
+        // the bucket starts full
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, START));
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, START));
+        assertFalse(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, START));
+        // half a token after 50ms, a whole one after 100ms
+        assertFalse(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, START + millis(50)));
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, START + millis(100)));
+        assertFalse(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, START + millis(100)));
+        // the bucket never holds more tokens than the burst
+        long later = START + millis(10_000);
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, later));
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, later));
+        assertFalse(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, later));
+
+        // other packets and unknown packets are not limited
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.ANIMATION, 10, later));
+            assertTrue(limiter.tryAcquire(user, null, 10, later));
+        }
+        // every connection has buckets of its own
+        assertTrue(limiter.tryAcquire(createUser(), PacketType.Play.Client.CHAT_MESSAGE, 10, later));
+    }
+
+    @Test
+    @DisplayName("Test limiting all packets of a connection")
+    public void testConnectionLimit() {
+        PacketRateLimiter limiter = new PacketRateLimiter().action(PacketRateLimiter.Action.DROP)
+                .connectionLimit(1D, 3D);
+        User user = createUser();
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, START));
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.ANIMATION, 10, START));
+        assertTrue(limiter.tryAcquire(user, null, 10, START));
+        assertFalse(limiter.tryAcquire(user, PacketType.Play.Client.ANIMATION, 10, START));
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.ANIMATION, 10, START + millis(1_000)));
+    }
+
+    @Test
+    @DisplayName("Test limiting the size of a packet type")
+    public void testMaxBytes() {
+        PacketRateLimiter limiter = new PacketRateLimiter().action(PacketRateLimiter.Action.DROP)
+                .maxBytes(PacketType.Play.Client.CHAT_MESSAGE, 100)
+                // configuring the rate keeps the size limit
+                .limit(PacketType.Play.Client.CHAT_MESSAGE, 1D, 1D);
+        User user = createUser();
+        assertFalse(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 101, START));
+        // the oversized packet didn't take the token
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 100, START));
+        assertFalse(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 100, START));
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.ANIMATION, 10_000, START));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> limiter.maxBytes(PacketType.Play.Server.SYSTEM_CHAT_MESSAGE, 100));
+    }
+
+    @Test
+    @DisplayName("Test the limits can't be changed once the limiter is in use")
+    public void testInUse() {
+        PacketRateLimiter limiter = new PacketRateLimiter().action(PacketRateLimiter.Action.DROP)
+                .limit(PacketType.Play.Client.CHAT_MESSAGE, 1D, 1D);
+        User user = createUser();
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, START));
+
+        // the buckets of existing connections are sized by the limits
+        assertThrows(IllegalStateException.class, () -> limiter.limit(PacketType.Play.Client.ANIMATION, 1D, 1D));
+        assertThrows(IllegalStateException.class, () -> limiter.maxBytes(PacketType.Play.Client.ANIMATION, 100));
+        assertThrows(IllegalStateException.class, () -> limiter.connectionLimit(1D, 1D));
+        assertTrue(limiter.tryAcquire(user, PacketType.Play.Client.ANIMATION, 10, START));
+        assertFalse(limiter.tryAcquire(user, PacketType.Play.Client.CHAT_MESSAGE, 10, START));
+    }
+
+    @Test
+    @DisplayName("Test checking incoming buffers against the configured limiter")
+    public void testWithinLimits() {
+        PacketRateLimiter limiter = new PacketRateLimiter().action(PacketRateLimiter.Action.DROP)
+                .maxBytes(PacketType.Play.Client.CHAT_MESSAGE, 8);
+        User user = createUser();
+        ByteBuf small = createPacket(4);
+        ByteBuf large = createPacket(16);
+        try {
+            // nothing is limited without a limiter
+            assertTrue(PacketEventsImplHelper.isWithinLimits(user, large, false));
+            PacketEvents.getAPI().getSettings().packetRateLimiter(limiter);
+            assertTrue(PacketEventsImplHelper.isWithinLimits(user, small, false));
+            assertFalse(PacketEventsImplHelper.isWithinLimits(user, large, false));
+        } finally {
+            PacketEvents.getAPI().getSettings().packetRateLimiter(null);
+            small.release();
+            large.release();
+        }
+    }
+
+    private static ByteBuf createPacket(int bytes) {
+        ByteBuf buffer = Unpooled.buffer();
+        // the packet id fits into a single byte
+        buffer.writeByte(PacketType.Play.Client.CHAT_MESSAGE.getId(VERSION));
+        buffer.writeZero(bytes - 1);
+        return buffer;
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static User createUser() {
+        return new User(null, ConnectionState.PLAY, VERSION, new UserProfile(UUID.randomUUID(), "test"));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import io.github.retrooper.packetevents.impl.netty.buffer.ByteBufOperatorImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReadVarIntTest {
+
+    private static final int[] VALUES = {
+            0, 1, 127, 128, 255, 16383, 16384, 2097151, 2097152, 268435455, 268435456,
+            Integer.MAX_VALUE, -1, Integer.MIN_VALUE, 0x12345678, -0x12345678
+    };
+
+    @Test
+    @DisplayName("Test reading VarInts of every length")
+    public void testValues() {
+        for (int value : VALUES) {
+            // surrounded by other data, so the fast path reads whole ints
+            ByteBuf buffer = Unpooled.buffer();
+            buffer.writeByte(0x42);
+            writeVarInt(buffer, value);
+            buffer.writeInt(-1);
+            buffer.readByte();
+            assertEquals(value, ByteBufOperatorImpl.readVarInt(buffer));
+            assertEquals(buffer.writerIndex() - 4, buffer.readerIndex());
+            buffer.release();
+        }
+    }
+
+    @Test
+    @DisplayName("Test reading VarInts at the end of the buffer")
+    public void testBufferEnd() {
+        for (int value : VALUES) {
+            // no padding at all, the buffer ends right after the VarInt
+            ByteBuf buffer = Unpooled.buffer();
+            writeVarInt(buffer, value);
+            int length = buffer.writerIndex();
+            assertEquals(value, ByteBufOperatorImpl.readVarInt(buffer));
+            assertEquals(length, buffer.readerIndex());
+
+            // with fewer than four readable bytes after the VarInt
+            for (int padding = 0; padding < 4; padding++) {
+                buffer.clear();
+                writeVarInt(buffer, value);
+                buffer.writeZero(padding);
+                assertEquals(value, ByteBufOperatorImpl.readVarInt(buffer), "padding " + padding);
+                assertEquals(length, buffer.readerIndex());
+            }
+            buffer.release();
+        }
+
+        // the data behind the writer index must not be read
+        ByteBuf buffer = Unpooled.buffer(8).writeByte(0x81).writeByte(0x01).writeByte(0xFF).writeByte(0xFF);
+        buffer.writerIndex(2);
+        assertEquals(129, ByteBufOperatorImpl.readVarInt(buffer));
+        assertEquals(2, buffer.readerIndex());
+        buffer.release();
+    }
+
+    @Test
+    @DisplayName("Test reading malformed VarInts")
+    public void testMalformed() {
+        // the fifth byte may not have the continuation bit set
+        ByteBuf tooLong = Unpooled.buffer().writeBytes(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0x8F, 0x01});
+        assertThrows(RuntimeException.class, () -> ByteBufOperatorImpl.readVarInt(tooLong));
+        tooLong.release();
+
+        ByteBuf tooLongAtEnd = Unpooled.buffer().writeBytes(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF});
+        assertThrows(RuntimeException.class, () -> ByteBufOperatorImpl.readVarInt(tooLongAtEnd));
+        tooLongAtEnd.release();
+
+        // the buffer ends in the middle of the VarInt, on the slow and on the fast path
+        for (int length = 1; length <= 4; length++) {
+            ByteBuf truncated = Unpooled.buffer();
+            for (int i = 0; i < length; i++) {
+                truncated.writeByte(0x80);
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> ByteBufOperatorImpl.readVarInt(truncated),
+                    "length " + length);
+            truncated.release();
+        }
+
+        ByteBuf empty = Unpooled.buffer();
+        assertThrows(IndexOutOfBoundsException.class, () -> ByteBufOperatorImpl.readVarInt(empty));
+        empty.release();
+    }
+
+    private static void writeVarInt(ByteBuf buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer.writeByte(value);
+    }
+}
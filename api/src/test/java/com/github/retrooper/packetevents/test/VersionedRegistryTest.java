@@ -0,0 +1,76 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.mappings.VersionedRegistry;
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ScanResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class VersionedRegistryTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test id lookups match the id maps of every registry")
+    public void testGetById() {
+        List<VersionedRegistry<?>> registries = getRegistries();
+        assertFalse(registries.isEmpty());
+        for (VersionedRegistry<?> registry : registries) {
+            ClientVersion[] versions = registry.getTypesBuilder().getVersions();
+            for (int dataIndex = 0; dataIndex < versions.length; dataIndex++) {
+                Map<Integer, ?> idMap = registry.getTypeIdMap(dataIndex);
+                int maxId = idMap.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+                // also check the id after the known ones, which has to be absent
+                for (int id = 0; id <= maxId + 1; id++) {
+                    String message = registry.getRegistryKey() + " " + versions[dataIndex] + " id " + id;
+                    assertSame(idMap.get(id), registry.getById(dataIndex, id), message);
+                    assertSame(idMap.get(id), registry.getById(versions[dataIndex], id), message);
+                }
+                // the id maps contain entries missing in a version at id -1, these are no valid ids
+                assertNull(registry.getById(dataIndex, -1));
+            }
+        }
+    }
+
+    private static List<VersionedRegistry<?>> getRegistries() {
+        try (ScanResult scan = new ClassGraph()
+                .acceptPackages(PacketEvents.class.getPackage().getName())
+                .enableAllInfo()
+                .scan()) {
+            return scan.getAllClasses().stream()
+                    .flatMap(clazz -> clazz.getMethodInfo("getRegistry").stream())
+                    .filter(meth -> meth.isPublic() && meth.isStatic())
+                    .map(meth -> assertDoesNotThrow(() ->
+                            (VersionedRegistry<?>) meth.loadClassAndGetMethod().invoke(null)))
+                    .collect(Collectors.toList());
+        }
+    }
+}
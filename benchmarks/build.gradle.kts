@@ -0,0 +1,38 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    jmh(project(":api"))
+    jmh(project(":netty-common"))
+    jmh(project(":patch:adventure-text-serializer-gson"))
+    jmh(libs.bundles.adventure)
+    jmh(libs.adventure.text.serializer.legacy)
+    jmh(libs.gson)
+    jmh(libs.netty)
+    jmh(libs.jetbrains.annotations)
+    jmh(libs.jmh.core)
+    jmhAnnotationProcessor(libs.jmh.generator.annprocess)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    // run a single benchmark class with e.g. -PjmhIncludes=PacketPipelineBenchmark
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+}
+
+tasks {
+    withType<JavaCompile> {
+        options.encoding = Charsets.UTF_8.name()
+        options.release = 8
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.injector.ChannelInjector;
+import com.github.retrooper.packetevents.manager.player.PlayerManager;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.manager.server.ServerManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.NettyManager;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.ProtocolVersion;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
+import io.github.retrooper.packetevents.impl.netty.manager.protocol.ProtocolManagerAbstract;
+import io.github.retrooper.packetevents.impl.netty.manager.server.ServerManagerAbstract;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import java.util.UUID;
+
+/**
+ * Minimal platform-less packetevents instance the benchmarks run against.
+ * The server always runs the latest version and the injector doesn't inject into anything.
+ */
+public final class BenchmarkPacketEvents {
+
+    private BenchmarkPacketEvents() {
+    }
+
+    public static synchronized void setup() {
+        if (PacketEvents.getAPI() != null) {
+            return;
+        }
+        PacketEventsAPI<Object> api = new PacketEventsAPI<Object>() {
+            private final Object plugin = new Object();
+            private final ProtocolManager protocolManager = new ProtocolManagerAbstract() {
+                @Override
+                public ProtocolVersion getPlatformVersion() {
+                    return ProtocolVersion.UNKNOWN;
+                }
+            };
+            private final ServerManager serverManager = new ServerManagerAbstract() {
+                @Override
+                public ServerVersion getVersion() {
+                    return ServerVersion.getLatest();
+                }
+            };
+            private final NettyManager nettyManager = new NettyManagerImpl();
+            private final ChannelInjector injector = new ChannelInjector() {
+                @Override
+                public void inject() {
+                }
+
+                @Override
+                public void uninject() {
+                }
+
+                @Override
+                public void updateUser(Object channel, User user) {
+                }
+
+                @Override
+                public void setPlayer(Object channel, Object player) {
+                }
+
+                @Override
+                public boolean isPlayerSet(Object channel) {
+                    return false;
+                }
+
+                @Override
+                public boolean isProxy() {
+                    return false;
+                }
+            };
+
+            private boolean loaded;
+            private boolean initialized;
+            private boolean terminated;
+
+            @Override
+            public void load() {
+                if (!loaded) {
+                    if (!PacketType.isPrepared()) {
+                        PacketType.prepare();
+                    }
+                    loaded = true;
+                }
+            }
+
+            @Override
+            public boolean isLoaded() {
+                return loaded;
+            }
+
+            @Override
+            public void init() {
+                load();
+                initialized = true;
+            }
+
+            @Override
+            public boolean isInitialized() {
+                return initialized;
+            }
+
+            @Override
+            public void terminate() {
+                if (initialized) {
+                    initialized = false;
+                    terminated = true;
+                }
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return terminated;
+            }
+
+            @Override
+            public Object getPlugin() {
+                return plugin;
+            }
+
+            @Override
+            public ProtocolManager getProtocolManager() {
+                return protocolManager;
+            }
+
+            @Override
+            public ServerManager getServerManager() {
+                return serverManager;
+            }
+
+            @Override
+            public PlayerManager getPlayerManager() {
+                return null;
+            }
+
+            @Override
+            public NettyManager getNettyManager() {
+                return nettyManager;
+            }
+
+            @Override
+            public ChannelInjector getInjector() {
+                return injector;
+            }
+        };
+        PacketEvents.setAPI(api);
+        api.init();
+    }
+
+    /**
+     * Creates a user in the play state on the latest version, backed by an embedded channel.
+     */
+    public static User createUser() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        User user = new User(channel, ConnectionState.PLAY, ClientVersion.getLatest(),
+                new UserProfile(UUID.randomUUID(), "benchmark"));
+        user.setEntityId(1);
+        PacketEvents.getAPI().getProtocolManager().setUser(channel, user);
+        return user;
+    }
+
+    /**
+     * Encodes the wrapper including its packet id, the same way it would be sent to the user.
+     */
+    public static ByteBuf encode(User user, PacketWrapper<?> wrapper) {
+        wrapper.buffer = null;
+        wrapper.prepareForSend(user.getChannel(), true, false);
+        return (ByteBuf) wrapper.buffer;
+    }
+}
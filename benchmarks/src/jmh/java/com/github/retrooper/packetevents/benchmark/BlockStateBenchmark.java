@@ -0,0 +1,77 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures block state lookups by global id, as done for every block of a rewritten chunk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BlockStateBenchmark {
+
+    private static final int MAX_GLOBAL_ID = 1 << 15;
+    private static final int LOOKUPS = 4096;
+
+    @Param({"true", "false"})
+    public boolean clone;
+
+    private final ClientVersion version = ClientVersion.getLatest();
+    private int[] globalIds;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkPacketEvents.setup();
+        // only look up ids which actually exist on this version
+        int[] valid = new int[MAX_GLOBAL_ID];
+        int validCount = 0;
+        for (int id = 1; id < MAX_GLOBAL_ID; id++) {
+            if (WrappedBlockState.getByGlobalId(this.version, id, false).getGlobalId() == id) {
+                valid[validCount++] = id;
+            }
+        }
+        Random random = new Random(0L);
+        this.globalIds = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            this.globalIds[i] = valid[random.nextInt(validCount)];
+        }
+    }
+
+    @Benchmark
+    public WrappedBlockState getByGlobalId() {
+        int id = this.globalIds[this.index++ & (LOOKUPS - 1)];
+        return WrappedBlockState.getByGlobalId(this.version, id, this.clone);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTDouble;
+import com.github.retrooper.packetevents.protocol.nbt.NBTFloat;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the network nbt codec with a compound shaped like typical registry and item data.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NBTBenchmark {
+
+    /**
+     * Amount of entries in the list of nested compounds.
+     */
+    @Param({"1", "16", "256"})
+    public int entries;
+
+    private final ServerVersion version = ServerVersion.getLatest();
+    private NBTCompound compound;
+    private ByteBuf encoded;
+    private ByteBuf writeBuffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkPacketEvents.setup();
+        this.compound = createCompound(this.entries);
+        this.encoded = PooledByteBufAllocator.DEFAULT.buffer();
+        NBTCodec.writeNBTToBuffer(this.encoded, this.version, this.compound);
+        this.writeBuffer = PooledByteBufAllocator.DEFAULT.buffer(this.encoded.readableBytes());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.encoded.release();
+        this.writeBuffer.release();
+    }
+
+    @Benchmark
+    public NBT read() {
+        this.encoded.readerIndex(0);
+        return NBTCodec.readNBTFromBuffer(this.encoded, this.version);
+    }
+
+    @Benchmark
+    public ByteBuf write() {
+        this.writeBuffer.clear();
+        NBTCodec.writeNBTToBuffer(this.writeBuffer, this.version, this.compound);
+        return this.writeBuffer;
+    }
+
+    @Benchmark
+    public NBT roundTrip() {
+        this.writeBuffer.clear();
+        NBTCodec.writeNBTToBuffer(this.writeBuffer, this.version, this.compound);
+        return NBTCodec.readNBTFromBuffer(this.writeBuffer, this.version);
+    }
+
+    private static NBTCompound createCompound(int entries) {
+        NBTList<NBTCompound> list = NBTList.createCompoundList();
+        for (int i = 0; i < entries; i++) {
+            NBTCompound entry = new NBTCompound();
+            entry.setTag("name", new NBTString("minecraft:entry_" + i));
+            entry.setTag("id", new NBTInt(i));
+            NBTCompound element = new NBTCompound();
+            element.setTag("has_skylight", new NBTByte(true));
+            element.setTag("coordinate_scale", new NBTDouble(1.0));
+            element.setTag("ambient_light", new NBTFloat(0.0f));
+            element.setTag("effects", new NBTString("minecraft:overworld"));
+            element.setTag("heights", new NBTLongArray(new long[]{-64L, 320L, 384L}));
+            entry.setTag("element", element);
+            list.addTag(entry);
+        }
+        NBTCompound compound = new NBTCompound();
+        compound.setTag("type", new NBTString("minecraft:dimension_type"));
+        compound.setTag("value", list);
+        return compound;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPlayerPosition;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityVelocity;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of running a packet through the platform independent part of the pipeline,
+ * which every platform handler calls for every packet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PacketPipelineBenchmark {
+
+    @Param({"0", "1", "8", "32"})
+    public int listeners;
+
+    /**
+     * Whether the registered listeners are interested in the benchmarked packets,
+     * otherwise they listen to an unrelated packet type.
+     */
+    @Param({"true", "false"})
+    public boolean listened;
+
+    private User user;
+    private ByteBuf clientBound;
+    private ByteBuf serverBound;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkPacketEvents.setup();
+        this.user = BenchmarkPacketEvents.createUser();
+        this.clientBound = BenchmarkPacketEvents.encode(this.user,
+                new WrapperPlayServerEntityVelocity(2, new Vector3d(0.1, 0.42, -0.1)));
+        this.serverBound = BenchmarkPacketEvents.encode(this.user,
+                new WrapperPlayClientPlayerPosition(new Vector3d(12.5, 64.0, -7.25), true));
+
+        PacketTypeCommon[] types = this.listened
+                ? new PacketTypeCommon[]{PacketType.Play.Server.ENTITY_VELOCITY, PacketType.Play.Client.PLAYER_POSITION}
+                : new PacketTypeCommon[]{PacketType.Play.Server.CHUNK_DATA, PacketType.Play.Client.CHAT_MESSAGE};
+        for (int i = 0; i < this.listeners; i++) {
+            PacketEvents.getAPI().getEventManager().registerListener(
+                    new PacketListenerAbstract(PacketListenerPriority.NORMAL, types) {
+                        @Override
+                        public void onPacketSend(PacketSendEvent event) {
+                            event.getPacketType();
+                        }
+
+                        @Override
+                        public void onPacketReceive(PacketReceiveEvent event) {
+                            event.getPacketType();
+                        }
+                    });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PacketEvents.getAPI().getEventManager().unregisterAllListeners();
+        this.clientBound.release();
+        this.serverBound.release();
+    }
+
+    @Benchmark
+    public Object clientBound() throws Exception {
+        this.clientBound.readerIndex(0);
+        return PacketEventsImplHelper.handleClientBoundPacket(this.user.getChannel(), this.user, null,
+                this.clientBound, true);
+    }
+
+    @Benchmark
+    public Object serverBound() throws Exception {
+        this.serverBound.readerIndex(0);
+        return PacketEventsImplHelper.handleServerBoundPacket(this.user.getChannel(), this.user, null,
+                this.serverBound, true);
+    }
+}
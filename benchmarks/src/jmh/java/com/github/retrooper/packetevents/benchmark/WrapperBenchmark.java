@@ -0,0 +1,219 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.protocol.world.chunk.HeightmapType;
+import com.github.retrooper.packetevents.protocol.world.chunk.LightData;
+import com.github.retrooper.packetevents.protocol.world.chunk.TileEntity;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkData;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityRelativeMove;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityVelocity;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerPlayerInfoUpdate;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSetSlot;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerWindowItems;
+import io.netty.buffer.ByteBuf;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures reading and writing of the most frequently sent wrappers on the latest version.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WrapperBenchmark {
+
+    @Param({"ChunkData", "EntityMetadata", "PlayerInfoUpdate", "SetSlot", "WindowItems",
+            "EntityTeleport", "EntityRelativeMove", "EntityVelocity"})
+    public String wrapper;
+
+    private User user;
+    private PacketWrapper<?> packet;
+    private Function<PacketSendEvent, PacketWrapper<?>> reader;
+    private ByteBuf encoded;
+    private ByteBuf writeBuffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkPacketEvents.setup();
+        this.user = BenchmarkPacketEvents.createUser();
+        switch (this.wrapper) {
+            case "ChunkData":
+                this.packet = new WrapperPlayServerChunkData(createColumn(), createLightData());
+                this.reader = WrapperPlayServerChunkData::new;
+                break;
+            case "EntityMetadata":
+                this.packet = new WrapperPlayServerEntityMetadata(2, createEntityData());
+                this.reader = WrapperPlayServerEntityMetadata::new;
+                break;
+            case "PlayerInfoUpdate":
+                this.packet = new WrapperPlayServerPlayerInfoUpdate(EnumSet.of(
+                        WrapperPlayServerPlayerInfoUpdate.Action.ADD_PLAYER,
+                        WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_GAME_MODE,
+                        WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LISTED,
+                        WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LATENCY,
+                        WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_DISPLAY_NAME
+                ), createPlayerInfos());
+                this.reader = WrapperPlayServerPlayerInfoUpdate::new;
+                break;
+            case "SetSlot":
+                this.packet = new WrapperPlayServerSetSlot(0, 1, 36,
+                        ItemStack.builder().type(ItemTypes.DIAMOND_SWORD).amount(1).build());
+                this.reader = WrapperPlayServerSetSlot::new;
+                break;
+            case "WindowItems":
+                this.packet = new WrapperPlayServerWindowItems(0, 1, createItems(), ItemStack.EMPTY);
+                this.reader = WrapperPlayServerWindowItems::new;
+                break;
+            case "EntityTeleport":
+                this.packet = new WrapperPlayServerEntityTeleport(2, new Vector3d(12.5, 64.0, -7.25),
+                        90f, 0f, true);
+                this.reader = WrapperPlayServerEntityTeleport::new;
+                break;
+            case "EntityRelativeMove":
+                this.packet = new WrapperPlayServerEntityRelativeMove(2, 0.1, 0.0, -0.1, true);
+                this.reader = WrapperPlayServerEntityRelativeMove::new;
+                break;
+            case "EntityVelocity":
+                this.packet = new WrapperPlayServerEntityVelocity(2, new Vector3d(0.1, 0.42, -0.1));
+                this.reader = WrapperPlayServerEntityVelocity::new;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown wrapper " + this.wrapper);
+        }
+        this.encoded = BenchmarkPacketEvents.encode(this.user, this.packet);
+        this.writeBuffer = this.encoded.alloc().buffer(this.encoded.readableBytes());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.encoded.release();
+        this.writeBuffer.release();
+    }
+
+    @Benchmark
+    public PacketWrapper<?> read() throws Exception {
+        this.encoded.readerIndex(0);
+        PacketSendEvent event = EventCreationUtil.createSendEvent(this.user.getChannel(), this.user, null,
+                this.encoded, true);
+        return this.reader.apply(event);
+    }
+
+    @Benchmark
+    public ByteBuf write() {
+        this.writeBuffer.clear();
+        this.packet.buffer = this.writeBuffer;
+        this.packet.writeVarInt(this.packet.getPacketId());
+        this.packet.write();
+        return this.writeBuffer;
+    }
+
+    private static Column createColumn() {
+        BaseChunk[] chunks = new BaseChunk[24];
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk_v1_18 chunk = new Chunk_v1_18();
+            // fill the lower half of the world with a few different states, so palettes are used
+            if (i < chunks.length / 2) {
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            chunk.set(x, y, z, 1 + ((x * 31 + y * 17 + z * 7 + i) & 15));
+                        }
+                    }
+                }
+            }
+            chunks[i] = chunk;
+        }
+        Map<HeightmapType, long[]> heightmaps = new EnumMap<>(HeightmapType.class);
+        heightmaps.put(HeightmapType.MOTION_BLOCKING, new long[37]);
+        heightmaps.put(HeightmapType.WORLD_SURFACE, new long[37]);
+        return new Column(0, 0, true, chunks, new TileEntity[0], heightmaps);
+    }
+
+    private static LightData createLightData() {
+        return new LightData(false, new BitSet(), new BitSet(), new BitSet(), new BitSet(),
+                0, 0, new byte[0][], new byte[0][]);
+    }
+
+    private static List<EntityData<?>> createEntityData() {
+        List<EntityData<?>> data = new ArrayList<>();
+        data.add(new EntityData<>(0, EntityDataTypes.BYTE, (byte) 0));
+        data.add(new EntityData<>(1, EntityDataTypes.INT, 300));
+        data.add(new EntityData<>(2, EntityDataTypes.OPTIONAL_ADV_COMPONENT, Optional.empty()));
+        data.add(new EntityData<>(3, EntityDataTypes.BOOLEAN, false));
+        data.add(new EntityData<>(4, EntityDataTypes.BOOLEAN, false));
+        data.add(new EntityData<>(5, EntityDataTypes.BOOLEAN, false));
+        data.add(new EntityData<>(9, EntityDataTypes.FLOAT, 20f));
+        return data;
+    }
+
+    private static List<WrapperPlayServerPlayerInfoUpdate.PlayerInfo> createPlayerInfos() {
+        List<WrapperPlayServerPlayerInfoUpdate.PlayerInfo> infos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String name = "player" + i;
+            infos.add(new WrapperPlayServerPlayerInfoUpdate.PlayerInfo(new UserProfile(UUID.randomUUID(), name),
+                    true, 20 + i, GameMode.SURVIVAL, Component.text(name), null));
+        }
+        return infos;
+    }
+
+    private static List<ItemStack> createItems() {
+        List<ItemStack> items = new ArrayList<>();
+        for (int i = 0; i < 46; i++) {
+            items.add(i % 3 == 0 ? ItemStack.EMPTY : ItemStack.builder().type(ItemTypes.STONE).amount(64).build());
+        }
+        return items;
+    }
+}
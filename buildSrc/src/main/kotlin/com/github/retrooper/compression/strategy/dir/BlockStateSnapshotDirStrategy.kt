@@ -0,0 +1,102 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.compression.strategy.dir
+
+import com.github.retrooper.compression.CompressionUtil
+import com.github.retrooper.compression.strategy.CompressionStrategy
+import java.io.DataOutputStream
+import java.nio.file.Path
+import kotlin.io.path.ExperimentalPathApi
+import kotlin.io.path.createDirectories
+import kotlin.io.path.extension
+import kotlin.io.path.nameWithoutExtension
+import kotlin.io.path.outputStream
+import kotlin.io.path.walk
+
+/**
+ * Writes the modern block state mappings as flat binary snapshots next to the nbt mappings.
+ *
+ * Layout, all integers big endian:
+ * - magic `PEBS` and the snapshot format version
+ * - string pool: count, then every type name, property name and property value
+ * - property combinations: count, then per combination the amount of pairs and the name/value string indices
+ * - types: count and total state count, then per type the name index, default index, state count
+ *   and the combination index of every state
+ *
+ * The legacy mappings use a different format and are only shipped as nbt.
+ */
+object BlockStateSnapshotDirStrategy : CompressionStrategy {
+
+    const val MAGIC: Int = 0x50454253 // "PEBS"
+    const val VERSION: Int = 1
+
+    @OptIn(ExperimentalPathApi::class)
+    override fun compress(from: Path, to: Path) {
+        from.walk().filter { it.extension == "json" && it.nameWithoutExtension != "legacy" }.forEach {
+            val target = to.resolve(from.relativize(it).toString().replace(".json", ".bin"))
+            writeSnapshot(it, target)
+        }
+    }
+
+    private fun writeSnapshot(from: Path, to: Path) {
+        val strings = linkedMapOf<String, Int>()
+        val combinations = linkedMapOf<List<Int>, Int>()
+        fun string(value: String): Int = strings.getOrPut(value) { strings.size }
+
+        class Type(val name: Int, val def: Int, val states: IntArray)
+
+        val types = CompressionUtil.loadJson(from).asJsonArray.map { element ->
+            val type = element.asJsonObject
+            val entries = type.getAsJsonArray("entries")
+            val states = IntArray(entries.size()) { index ->
+                // keep the property order of the mappings, it is part of the state string
+                val pairs = entries[index].asJsonObject.entrySet().flatMap { (key, value) ->
+                    listOf(string(key), string(value.asString))
+                }
+                combinations.getOrPut(pairs) { combinations.size }
+            }
+            Type(string(type.get("type").asString), type.get("def")?.asInt ?: 0, states)
+        }
+        check(strings.size <= 0xFFFF && combinations.size <= 0xFFFF) { "Too many block state values in $from" }
+
+        to.parent?.createDirectories()
+        DataOutputStream(to.outputStream().buffered()).use { out ->
+            out.writeInt(MAGIC)
+            out.writeByte(VERSION)
+
+            out.writeInt(strings.size)
+            strings.keys.forEach { out.writeUTF(it) }
+
+            out.writeInt(combinations.size)
+            combinations.keys.forEach { pairs ->
+                out.writeShort(pairs.size / 2)
+                pairs.forEach { out.writeShort(it) }
+            }
+
+            out.writeInt(types.size)
+            out.writeInt(types.sumOf { it.states.size })
+            types.forEach { type ->
+                out.writeShort(type.name)
+                out.writeShort(type.def)
+                out.writeShort(type.states.size)
+                type.states.forEach { out.writeShort(it) }
+            }
+        }
+    }
+}
@@ -249,6 +249,7 @@ public class BungeePacketEventsBuilder {
                     injector.uninject();
                     // Unregister all our listeners
                     getEventManager().unregisterAllListeners();
+                    getMetrics().unregisterMBean();
                     initialized = false;
                     terminated = true;
                 }
@@ -21,8 +21,10 @@ package io.github.retrooper.packetevents.handlers;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import io.github.retrooper.packetevents.injector.ServerConnectionInitializer;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -49,6 +51,14 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
         if (this.tryFixCompressorOrder(ctx, byteBuf)) {
             return; // skip handling of buffer
         }
+        PacketEventsImplHelper.recordPacket(user, byteBuf, false, PacketSide.CLIENT);
+        if (!PacketEventsImplHelper.isWithinLimits(user, byteBuf, false)) {
+            return; // drop the packet before anything gets decoded
+        }
+        if (!PacketEventsImplHelper.isPacketListened(user, byteBuf, false, PacketSide.CLIENT)) {
+            output.add(byteBuf.retain());
+            return;
+        }
 
         ByteBuf transformed = ctx.alloc().buffer().writeBytes(byteBuf);
         try {
@@ -72,6 +82,7 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
                     task.run();
                 }
             }
+            EventCreationUtil.recycleEvent(user, packetReceiveEvent);
         } finally {
             transformed.release();
         }
@@ -21,8 +21,10 @@ package io.github.retrooper.packetevents.handlers;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import io.github.retrooper.packetevents.injector.CustomPipelineUtil;
 import io.netty.buffer.ByteBuf;
@@ -51,6 +53,11 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
 
     public void read(ChannelHandlerContext originalCtx, ByteBuf buffer, ChannelPromise promise) {
         ChannelHandlerContext ctx = this.tryFixCompressorOrder(originalCtx, buffer);
+        PacketEventsImplHelper.recordPacket(user, buffer, false, PacketSide.SERVER);
+        if (!PacketEventsImplHelper.isPacketListened(user, buffer, false, PacketSide.SERVER)) {
+            ctx.write(buffer, promise);
+            return;
+        }
         int firstReaderIndex = buffer.readerIndex();
         PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player,
                 buffer, false);
@@ -83,6 +90,7 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
                 task.run();
             }
         }
+        EventCreationUtil.recycleEvent(user, packetSendEvent);
     }
 
     @Override
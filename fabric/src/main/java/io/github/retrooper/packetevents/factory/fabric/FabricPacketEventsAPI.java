@@ -136,6 +136,7 @@ public class FabricPacketEventsAPI extends PacketEventsAPI<FabricLoader> {
             return;
         }
         this.getEventManager().unregisterAllListeners();
+        this.getMetrics().unregisterMBean();
         this.initialized = false;
         this.terminated = true;
     }
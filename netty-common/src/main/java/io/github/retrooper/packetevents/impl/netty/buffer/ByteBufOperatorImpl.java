@@ -139,6 +139,21 @@ public class ByteBufOperatorImpl implements ByteBufOperator {
         return ((ByteBuf)buffer).getUnsignedByte(index);
     }
 
+    @Override
+    public void setByte(Object buffer, int index, int value) {
+        ((ByteBuf)buffer).setByte(index, value);
+    }
+
+    @Override
+    public int getInt(Object buffer, int index) {
+        return ((ByteBuf)buffer).getInt(index);
+    }
+
+    @Override
+    public void setInt(Object buffer, int index, int value) {
+        ((ByteBuf)buffer).setInt(index, value);
+    }
+
     @Override
     public boolean isReadable(Object buffer) {
         return ((ByteBuf)buffer).isReadable();
@@ -253,4 +268,62 @@ public class ByteBufOperatorImpl implements ByteBufOperator {
     public Object allocateNewBuffer(Object buffer) {
         return ((ByteBuf) buffer).alloc().buffer();
     }
+
+    @Override
+    public int readVarInt(Object buffer) {
+        return readVarInt((ByteBuf) buffer);
+    }
+
+    /**
+     * Reads a VarInt using a single bounds-checked int read for the first four bytes,
+     * instead of reading and checking every byte on its own.
+     */
+    public static int readVarInt(ByteBuf buffer) {
+        int readerIndex = buffer.readerIndex();
+        if (buffer.writerIndex() - readerIndex < 4) {
+            return readVarIntSlow(buffer);
+        }
+        int word = buffer.getInt(readerIndex);
+        int value = (word >>> 24) & 0x7F;
+        if ((word & 0x80000000) == 0) {
+            buffer.readerIndex(readerIndex + 1);
+            return value;
+        }
+        value |= ((word >>> 16) & 0x7F) << 7;
+        if ((word & 0x800000) == 0) {
+            buffer.readerIndex(readerIndex + 2);
+            return value;
+        }
+        value |= ((word >>> 8) & 0x7F) << 14;
+        if ((word & 0x8000) == 0) {
+            buffer.readerIndex(readerIndex + 3);
+            return value;
+        }
+        value |= (word & 0x7F) << 21;
+        if ((word & 0x80) == 0) {
+            buffer.readerIndex(readerIndex + 4);
+            return value;
+        }
+        buffer.readerIndex(readerIndex + 4);
+        byte lastByte = buffer.readByte();
+        if ((lastByte & 0x80) == 0x80) {
+            throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+        }
+        return value | lastByte << 28;
+    }
+
+    private static int readVarIntSlow(ByteBuf buffer) {
+        int value = 0;
+        int length = 0;
+        byte currentByte;
+        do {
+            currentByte = buffer.readByte();
+            value |= (currentByte & 0x7F) << (length * 7);
+            length++;
+            if (length > 5) {
+                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+            }
+        } while ((currentByte & 0x80) == 0x80);
+        return value;
+    }
 }
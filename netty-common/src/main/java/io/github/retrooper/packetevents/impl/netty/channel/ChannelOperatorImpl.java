@@ -20,6 +20,8 @@ package io.github.retrooper.packetevents.impl.netty.channel;
 
 import com.github.retrooper.packetevents.netty.channel.ChannelOperator;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.ReferenceCountUtil;
 
 import java.net.SocketAddress;
 import java.util.List;
@@ -67,7 +69,7 @@ public class ChannelOperatorImpl implements ChannelOperator {
 
     @Override
     public Object writeInContext(Object channel, String ctx, Object buffer) {
-        return ((Channel) channel).pipeline().context(ctx).write(buffer);
+        return context(channel, ctx, buffer).write(buffer);
     }
 
     @Override
@@ -77,12 +79,12 @@ public class ChannelOperatorImpl implements ChannelOperator {
 
     @Override
     public Object writeAndFlushInContext(Object channel, String ctx, Object buffer) {
-        return ((Channel) channel).pipeline().context(ctx).writeAndFlush(buffer);
+        return context(channel, ctx, buffer).writeAndFlush(buffer);
     }
 
     @Override
     public Object fireChannelReadInContext(Object channel, String ctx, Object buffer) {
-        return ((Channel) channel).pipeline().context(ctx).fireChannelRead(buffer);
+        return context(channel, ctx, buffer).fireChannelRead(buffer);
     }
 
     @Override
@@ -114,4 +116,14 @@ public class ChannelOperatorImpl implements ChannelOperator {
     public Object pooledByteBuf(Object channel) {
         return ((Channel) channel).alloc().buffer();
     }
+
+    private static ChannelHandlerContext context(Object channel, String ctx, Object buffer) {
+        ChannelHandlerContext context = ((Channel) channel).pipeline().context(ctx);
+        if (context == null) {
+            // the buffer never reaches the pipeline, release it like a failed write would
+            ReferenceCountUtil.release(buffer);
+            throw new IllegalStateException("No handler " + ctx + " in the pipeline of " + channel);
+        }
+        return context;
+    }
 }
@@ -136,6 +136,7 @@ public class NettyPacketEventsBuilder {
                     injector.uninject();
                     //Unregister all our listeners
                     getEventManager().unregisterAllListeners();
+                    getMetrics().unregisterMBean();
                     initialized = false;
                     terminated = true;
                 }
@@ -36,3 +36,5 @@ include("sponge")
 include("fabric")
 // Patch modules
 include(":patch:adventure-text-serializer-gson")
+// Benchmarks, not published
+include("benchmarks")
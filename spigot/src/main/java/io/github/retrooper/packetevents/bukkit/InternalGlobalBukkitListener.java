@@ -22,9 +22,14 @@ import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.PacketEventsAPI;
 import com.github.retrooper.packetevents.event.UserLoginEvent;
 import com.github.retrooper.packetevents.protocol.player.User;
+import io.github.retrooper.packetevents.util.SpigotReflectionUtil;
+import org.bukkit.entity.Entity;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntitySpawnEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 public class InternalGlobalBukkitListener implements Listener {
     @EventHandler
@@ -32,5 +37,17 @@ public class InternalGlobalBukkitListener implements Listener {
         PacketEventsAPI<?> api = PacketEvents.getAPI();
         User user = api.getPlayerManager().getUser(event.getPlayer());
         PacketEvents.getAPI().getEventManager().callEvent(new UserLoginEvent(user, event.getPlayer()));
+        SpigotReflectionUtil.ENTITY_ID_INDEX.put(event.getPlayer().getEntityId(), event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        SpigotReflectionUtil.ENTITY_ID_INDEX.remove(event.getPlayer().getEntityId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntitySpawn(EntitySpawnEvent event) {
+        Entity entity = event.getEntity();
+        SpigotReflectionUtil.ENTITY_ID_INDEX.put(entity.getEntityId(), entity);
     }
 }
@@ -0,0 +1,162 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.injector.handlers;
+
+import com.github.retrooper.packetevents.PacketEvents;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread pool processing the packet types configured with
+ * {@link com.github.retrooper.packetevents.settings.PacketEventsSettings#asyncPacketTypes} off the netty event loop.
+ * Each {@link PacketEventsEncoder} processes at most one packet at a time on the pool, which keeps the packets of a
+ * channel in order and prevents a single channel from occupying the whole pool.
+ */
+public final class AsyncPacketProcessor {
+
+    /**
+     * Maximum amount of packets per channel waiting to be sent while async packets are processed,
+     * further async packets of the channel are processed on the event loop until the queue drains.
+     */
+    static final int MAX_PENDING_PACKETS = 256;
+    /**
+     * Maximum amount of async packets of all channels waiting for or being processed by the pool,
+     * further async packets are processed on the event loop until packets have been processed.
+     */
+    static final int MAX_IN_FLIGHT_PACKETS = 8192;
+
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final LongAdder PROCESSED = new LongAdder();
+    private static final LongAdder SYNCHRONOUS_FALLBACKS = new LongAdder();
+
+    private static volatile ForkJoinPool pool;
+
+    private AsyncPacketProcessor() {
+    }
+
+    private static ForkJoinPool getPool() {
+        ForkJoinPool pool = AsyncPacketProcessor.pool;
+        if (pool == null) {
+            synchronized (AsyncPacketProcessor.class) {
+                pool = AsyncPacketProcessor.pool;
+                if (pool == null) {
+                    int threads = PacketEvents.getAPI().getSettings().getAsyncProcessingThreads();
+                    AtomicInteger threadId = new AtomicInteger();
+                    pool = new ForkJoinPool(threads, p -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                        thread.setName("packetevents-async-" + threadId.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, null, true);
+                    AsyncPacketProcessor.pool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Reserves room for a packet which is going to be processed by the pool, every successful reservation
+     * is given back by either {@link #submit(Runnable)} once the packet has been processed or {@link #cancel()}.
+     *
+     * @return false if too many packets are in flight already
+     */
+    static boolean tryReserve() {
+        int inFlight;
+        do {
+            inFlight = IN_FLIGHT.get();
+            if (inFlight >= MAX_IN_FLIGHT_PACKETS) {
+                return false;
+            }
+        } while (!IN_FLIGHT.compareAndSet(inFlight, inFlight + 1));
+        return true;
+    }
+
+    static void cancel() {
+        IN_FLIGHT.decrementAndGet();
+    }
+
+    static void submit(Runnable task) {
+        Runnable processing = () -> {
+            try {
+                task.run();
+            } finally {
+                IN_FLIGHT.decrementAndGet();
+                PROCESSED.increment();
+            }
+        };
+        try {
+            getPool().execute(processing);
+        } catch (RejectedExecutionException exception) {
+            // the pool has been shut down while packetevents terminates
+            processing.run();
+        }
+    }
+
+    /**
+     * Shuts the pool down, it is created again once further packets are submitted.
+     */
+    public static void shutdown() {
+        synchronized (AsyncPacketProcessor.class) {
+            ForkJoinPool pool = AsyncPacketProcessor.pool;
+            if (pool != null) {
+                AsyncPacketProcessor.pool = null;
+                pool.shutdown();
+            }
+        }
+    }
+
+    static void recordSynchronousFallback() {
+        SYNCHRONOUS_FALLBACKS.increment();
+    }
+
+    /**
+     * @return Amount of packets currently waiting for or being processed by the pool
+     */
+    public static int getInFlightPackets() {
+        return IN_FLIGHT.get();
+    }
+
+    /**
+     * @return Amount of packets processed by the pool
+     */
+    public static long getProcessedPackets() {
+        return PROCESSED.sum();
+    }
+
+    /**
+     * @return Amount of async packets which got processed on the event loop
+     * because too many packets of their channel or in total were pending
+     */
+    public static long getSynchronousFallbacks() {
+        return SYNCHRONOUS_FALLBACKS.sum();
+    }
+
+    /**
+     * @return Amount of packets waiting for a free thread of the pool
+     */
+    public static long getQueuedPackets() {
+        ForkJoinPool pool = AsyncPacketProcessor.pool;
+        return pool == null ? 0 : pool.getQueuedSubmissionCount();
+    }
+}
@@ -22,7 +22,11 @@ import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.exception.InvalidDisconnectPacketSend;
 import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.ExceptionUtil;
 import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
@@ -45,7 +49,9 @@ import org.jspecify.annotations.Nullable;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayDeque;
+import java.util.List;
 import java.util.Queue;
+import java.util.Set;
 
 public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
 
@@ -72,6 +78,13 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
     private final Queue<QueuedMessage> queuedMessages = new ArrayDeque<>();
     private boolean hold = false;
 
+    // packets waiting to be sent in order while async packets are processed
+    private final Queue<PendingMessage> pendingMessages = new ArrayDeque<>();
+    private int pendingSyncMessages;
+    // whether an async packet of this channel is being processed, only one is processed at a time
+    private boolean processingAsync;
+    private boolean removed;
+
     public PacketEventsEncoder(User user) {
         this.user = user;
     }
@@ -98,11 +111,24 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
         }
     }
 
+    /**
+     * @return Amount of packets of this channel waiting to be sent while async packets are processed
+     */
+    public int getPendingPackets() {
+        return this.pendingMessages.size();
+    }
+
     private @Nullable PacketSendEvent handleClientBoundPacket(Channel channel, User user, Object player, ByteBuf buffer, ChannelPromise promise) throws Exception {
-        PacketSendEvent packetSendEvent = PacketEventsImplHelper.handleClientBoundPacket(channel, user, player, buffer, true);
+        return this.handleClientBoundPacket(channel, user, player, buffer, promise, true);
+    }
+
+    private @Nullable PacketSendEvent handleClientBoundPacket(Channel channel, User user, Object player, ByteBuf buffer, ChannelPromise promise, boolean recycle) throws Exception {
+        PacketSendEvent packetSendEvent = PacketEventsImplHelper.handleClientBoundPacket(channel, user, player, buffer, true, recycle);
         if (packetSendEvent != null && packetSendEvent.hasTasksAfterSend()) {
+            // don't hold on to the event itself, it may get recycled before the packet has been sent
+            List<Runnable> tasksAfterSend = packetSendEvent.getTasksAfterSend();
             promise.addListener((p) -> {
-                for (Runnable task : packetSendEvent.getTasksAfterSend()) {
+                for (Runnable task : tasksAfterSend) {
                     task.run();
                 }
             });
@@ -118,6 +144,22 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
             return;
         }
 
+        boolean async = this.shouldProcessAsync(ctx, msg);
+        if (async && (this.pendingMessages.size() >= AsyncPacketProcessor.MAX_PENDING_PACKETS
+                || !AsyncPacketProcessor.tryReserve())) {
+            // too many packets are waiting already, apply backpressure by processing this one on the event loop
+            AsyncPacketProcessor.recordSynchronousFallback();
+            async = false;
+        }
+        if (async || !this.pendingMessages.isEmpty()) {
+            // packets have to be sent in order, queue everything while async packets are pending
+            this.enqueue(ctx, msg, promise, async);
+            return;
+        }
+        this.process(ctx, msg, promise);
+    }
+
+    private void process(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
         // We must restore the old promise (in case we are stacking promises such as sending packets on send event)
         // If the old promise was successful, set it to null to avoid memory leaks.
         ChannelPromise oldPromise = this.promise != null && !this.promise.isSuccess() ? this.promise : null;
@@ -148,6 +190,127 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
         ctx.write(msg, promise);
     }
 
+    private boolean shouldProcessAsync(ChannelHandlerContext ctx, Object msg) {
+        if (!(msg instanceof ByteBuf) || this.user == null
+                || this.user.getEncoderState() != ConnectionState.PLAY) {
+            return false;
+        }
+        Set<PacketTypeCommon> asyncPacketTypes = PacketEvents.getAPI().getSettings().getAsyncPacketTypes();
+        if (asyncPacketTypes.isEmpty()) {
+            return false;
+        }
+        // the buffer has to be uncompressed and we must not get relocated while processing it
+        if (!this.handledCompression && ctx.pipeline().get("compress") != null) {
+            return false;
+        }
+        int packetId = ByteBufHelper.peekVarInt(msg);
+        if (packetId == -1) {
+            return false;
+        }
+        PacketTypeCommon packetType = PacketType.getById(PacketSide.SERVER, ConnectionState.PLAY,
+                PacketEvents.getAPI().getServerManager().getVersion().toClientVersion(), packetId);
+        return packetType != null && asyncPacketTypes.contains(packetType);
+    }
+
+    private void enqueue(ChannelHandlerContext ctx, Object msg, ChannelPromise promise, boolean async) {
+        if (async && NETTY_4_1_0) {
+            promise = promise.unvoid();
+        }
+        PendingMessage pending = new PendingMessage(msg, promise, async);
+        this.pendingMessages.add(pending);
+        if (!async) {
+            this.pendingSyncMessages++;
+        } else {
+            this.processNextAsync(ctx);
+        }
+    }
+
+    private void processNextAsync(ChannelHandlerContext ctx) {
+        // packets of a channel are processed one after another, nothing ahead of an async
+        // packet may still have to be processed on the event loop
+        if (this.processingAsync || this.pendingSyncMessages != 0 || this.removed) {
+            return;
+        }
+        for (PendingMessage pending : this.pendingMessages) {
+            if (!pending.started) {
+                this.processAsync(ctx, pending);
+                return;
+            }
+        }
+    }
+
+    private void processAsync(ChannelHandlerContext ctx, PendingMessage pending) {
+        pending.started = true;
+        this.processingAsync = true;
+        AsyncPacketProcessor.submit(() -> {
+            try {
+                this.handleClientBoundPacket(ctx.channel(), this.user, this.player,
+                        (ByteBuf) pending.message, pending.promise, false);
+            } catch (Throwable throwable) {
+                pending.failure = throwable;
+            }
+            ctx.channel().eventLoop().execute(() -> {
+                pending.done = true;
+                this.processingAsync = false;
+                if (this.removed) {
+                    pending.release(ctx);
+                } else {
+                    this.drainPending(ctx);
+                }
+            });
+        });
+    }
+
+    private void fail(ChannelHandlerContext ctx, PendingMessage pending, Throwable failure) {
+        ReferenceCountUtil.release(pending.message);
+        pending.promise.tryFailure(failure);
+        // pass the failure on just like exceptions of packets processed on the event loop
+        try {
+            this.exceptionCaught(ctx, failure);
+        } catch (Throwable throwable) {
+            ctx.fireExceptionCaught(throwable);
+        }
+    }
+
+    private void drainPending(ChannelHandlerContext ctx) {
+        boolean wrote = false;
+        PendingMessage pending;
+        while ((pending = this.pendingMessages.peek()) != null) {
+            if (pending.async) {
+                if (!pending.done) {
+                    break; // wait for the async packet to be processed
+                }
+                this.pendingMessages.poll();
+                ByteBuf buffer = (ByteBuf) pending.message;
+                if (pending.failure != null) {
+                    this.fail(ctx, pending, pending.failure);
+                } else if (!buffer.isReadable()) {
+                    // cancelled
+                    buffer.release();
+                    pending.promise.trySuccess();
+                } else {
+                    ctx.write(buffer, pending.promise);
+                    wrote = true;
+                }
+                continue;
+            }
+
+            this.pendingMessages.poll();
+            this.pendingSyncMessages--;
+            try {
+                this.process(ctx, pending.message, pending.promise);
+                wrote = true;
+            } catch (Throwable throwable) {
+                this.fail(ctx, pending, throwable);
+            }
+        }
+        // start processing the next async packet, which may have been waiting for the processed ones
+        this.processNextAsync(ctx);
+        if (wrote) {
+            ctx.flush();
+        }
+    }
+
     @Override
     public void handlerRemoved(ChannelHandlerContext ctx) {
         // release queued messages to prevent memory leaks
@@ -159,6 +322,17 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
                 entry.promise.setFailure(new IllegalStateException(this + " got dropped from pipeline " + ctx.channel()));
             }
         }
+        // packets still being processed get released once they are done
+        this.removed = true;
+        PendingMessage pending;
+        while ((pending = this.pendingMessages.poll()) != null) {
+            if (!pending.started || pending.done) {
+                pending.release(ctx);
+            }
+            if (pending.async && !pending.started) {
+                AsyncPacketProcessor.cancel();
+            }
+        }
     }
 
     @Override
@@ -264,4 +438,27 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
             this.promise = promise;
         }
     }
+
+    private final class PendingMessage {
+
+        private final Object message;
+        private final ChannelPromise promise;
+        private final boolean async;
+        private boolean started;
+        private boolean done;
+        private @Nullable Throwable failure;
+
+        public PendingMessage(Object message, ChannelPromise promise, boolean async) {
+            this.message = message;
+            this.promise = promise;
+            this.async = async;
+        }
+
+        private void release(ChannelHandlerContext ctx) {
+            ReferenceCountUtil.release(this.message);
+            if (NETTY_4_1_0 && this.promise != null && !this.promise.isVoid()) {
+                this.promise.tryFailure(new IllegalStateException(PacketEventsEncoder.this + " got dropped from pipeline " + ctx.channel()));
+            }
+        }
+    }
 }
@@ -19,6 +19,7 @@
 package io.github.retrooper.packetevents.netty.buffer;
 
 import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
+import io.github.retrooper.packetevents.impl.netty.buffer.ByteBufOperatorImpl;
 import io.netty.buffer.ByteBuf;
 
 import java.nio.charset.Charset;
@@ -140,6 +141,21 @@ public class ByteBufOperatorModernImpl implements ByteBufOperator {
         return ((ByteBuf)buffer).getUnsignedByte(index);
     }
 
+    @Override
+    public void setByte(Object buffer, int index, int value) {
+        ((ByteBuf)buffer).setByte(index, value);
+    }
+
+    @Override
+    public int getInt(Object buffer, int index) {
+        return ((ByteBuf)buffer).getInt(index);
+    }
+
+    @Override
+    public void setInt(Object buffer, int index, int value) {
+        ((ByteBuf)buffer).setInt(index, value);
+    }
+
     @Override
     public boolean isReadable(Object buffer) {
         return ((ByteBuf)buffer).isReadable();
@@ -254,4 +270,9 @@ public class ByteBufOperatorModernImpl implements ByteBufOperator {
     public Object allocateNewBuffer(Object buffer) {
         return ((ByteBuf) buffer).alloc().buffer();
     }
+
+    @Override
+    public int readVarInt(Object buffer) {
+        return ByteBufOperatorImpl.readVarInt((ByteBuf) buffer);
+    }
 }
@@ -28,12 +28,12 @@ import com.github.retrooper.packetevents.protocol.particle.type.ParticleType;
 import com.github.retrooper.packetevents.protocol.particle.type.ParticleTypes;
 import com.github.retrooper.packetevents.protocol.player.TextureProperty;
 import com.github.retrooper.packetevents.resources.ResourceLocation;
+import com.github.retrooper.packetevents.util.IntWeakValueMap;
 import com.github.retrooper.packetevents.util.reflection.NestedClassUtil;
 import com.github.retrooper.packetevents.util.reflection.Reflection;
 import com.github.retrooper.packetevents.util.reflection.ReflectionObject;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.google.common.collect.BiMap;
-import com.google.common.collect.MapMaker;
 import io.netty.buffer.PooledByteBufAllocator;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
@@ -57,6 +57,8 @@ import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
@@ -152,7 +154,13 @@ public final class SpigotReflectionUtil {
     private static boolean IS_OBFUSCATED;
 
     //Cache entities right after we request/find them for faster search.
-    public static Map<Integer, Entity> ENTITY_ID_CACHE = new MapMaker().weakValues().makeMap();
+    //Entity ids are unique across all worlds, spawned entities are added by our bukkit listener.
+    public static final IntWeakValueMap<Entity> ENTITY_ID_INDEX = new IntWeakValueMap<>(1024);
+    /**
+     * @deprecated use {@link #ENTITY_ID_INDEX} instead, this is a view of it which boxes the entity ids
+     */
+    @Deprecated
+    public static Map<Integer, Entity> ENTITY_ID_CACHE = ENTITY_ID_INDEX.asMap();
 
     private static void initConstructors() {
         Class<?> itemClass = NMS_IMATERIAL_CLASS != null ? NMS_IMATERIAL_CLASS : NMS_ITEM_CLASS;
@@ -443,6 +451,53 @@ public final class SpigotReflectionUtil {
         }
     }
 
+    //Method handles of hot accessors, resolved once so they don't need Field#get or Method#invoke.
+    //They are constant, so the JIT can inline them, and get resolved at the end of init().
+    private static final class MethodHandleHolder {
+
+        private static final MethodHandle CRAFT_PLAYER_HANDLE_GETTER = Reflection.getMethodHandle(GET_CRAFT_PLAYER_HANDLE_METHOD);
+        private static final MethodHandle PLAYER_CONNECTION_GETTER = Reflection.getGetterHandle(ReflectionObject.getField(ENTITY_PLAYER_CLASS,
+                TRANSFER_COOKIE_CONNECTION_CLASS != null ? TRANSFER_COOKIE_CONNECTION_CLASS : PLAYER_CONNECTION_CLASS, 0));
+        private static final MethodHandle NETWORK_MANAGER_GETTER = Reflection.getGetterHandle(ReflectionObject.getField(
+                SERVER_COMMON_PACKETLISTENER_IMPL_CLASS != null ? SERVER_COMMON_PACKETLISTENER_IMPL_CLASS : PLAYER_CONNECTION_CLASS,
+                NETWORK_MANAGER_CLASS, 0));
+        private static final MethodHandle CHANNEL_GETTER = Reflection.getGetterHandle(ReflectionObject.getField(NETWORK_MANAGER_CLASS, CHANNEL_CLASS, 0));
+        private static final MethodHandle ENTITY_PLAYER_PING_GETTER = V_1_17_OR_HIGHER ? null
+                : Reflection.getGetterHandle(ENTITY_PLAYER_PING_FIELD);
+        private static final MethodHandle ENTITY_BY_ID_IN_WORLD = resolveEntityByIdInWorld();
+
+        private static void init() {
+            // initializes the holder
+        }
+
+        // resolve the whole path from a bukkit world to the nms entity with the given id
+        private static MethodHandle resolveEntityByIdInWorld() {
+            MethodHandle getEntityById;
+            if (V_1_17_OR_HIGHER) {
+                Class<?> levelClass = PAPER_ENTITY_LOOKUP_LEGACY ? SERVER_LEVEL_CLASS : LEVEL_CLASS;
+                MethodHandle levelEntityGetter;
+                if (PAPER_ENTITY_LOOKUP_EXISTS) {
+                    levelEntityGetter = Reflection.getGetterHandle(ReflectionObject.getField(levelClass, PAPER_ENTITY_LOOKUP_CLASS, 0));
+                } else {
+                    MethodHandle entitySectionManager = Reflection.getGetterHandle(
+                            ReflectionObject.getField(levelClass, PERSISTENT_ENTITY_SECTION_MANAGER_CLASS, 0));
+                    MethodHandle sectionManagerEntityGetter = Reflection.getGetterHandle(
+                            ReflectionObject.getField(PERSISTENT_ENTITY_SECTION_MANAGER_CLASS, LEVEL_ENTITY_GETTER_CLASS, 0));
+                    levelEntityGetter = entitySectionManager == null || sectionManagerEntityGetter == null ? null
+                            : MethodHandles.filterReturnValue(entitySectionManager, sectionManagerEntityGetter);
+                }
+                MethodHandle getById = Reflection.getMethodHandle(GET_ENTITY_BY_ID_LEVEL_ENTITY_GETTER_METHOD);
+                getEntityById = levelEntityGetter == null || getById == null ? null
+                        : MethodHandles.filterArguments(getById, 0, levelEntityGetter);
+            } else {
+                getEntityById = Reflection.getMethodHandle(GET_ENTITY_BY_ID_METHOD);
+            }
+            MethodHandle worldHandle = Reflection.getMethodHandle(GET_CRAFT_WORLD_HANDLE_METHOD);
+            return getEntityById == null || worldHandle == null ? null
+                    : MethodHandles.filterArguments(getEntityById, 0, worldHandle);
+        }
+    }
+
     public static void init() {
         VERSION = PacketEvents.getAPI().getServerManager().getVersion();
         V_1_19_OR_HIGHER = VERSION.isNewerThanOrEquals(ServerVersion.V_1_19);
@@ -454,6 +509,7 @@ public final class SpigotReflectionUtil {
         initMethods();
         initConstructors();
         initObjects();
+        MethodHandleHolder.init();
     }
 
     @Nullable
@@ -568,6 +624,14 @@ public final class SpigotReflectionUtil {
 
     public static Object getEntityPlayer(Player player) {
         Object craftPlayer = getCraftPlayer(player);
+        if (MethodHandleHolder.CRAFT_PLAYER_HANDLE_GETTER != null) {
+            try {
+                return (Object) MethodHandleHolder.CRAFT_PLAYER_HANDLE_GETTER.invokeExact(craftPlayer);
+            } catch (Throwable throwable) {
+                throwable.printStackTrace();
+                return null;
+            }
+        }
         try {
             return GET_CRAFT_PLAYER_HANDLE_METHOD.invoke(craftPlayer);
         } catch (IllegalAccessException | InvocationTargetException e) {
@@ -581,6 +645,13 @@ public final class SpigotReflectionUtil {
         if (entityPlayer == null) {
             return null;
         }
+        if (MethodHandleHolder.PLAYER_CONNECTION_GETTER != null) {
+            try {
+                return (Object) MethodHandleHolder.PLAYER_CONNECTION_GETTER.invokeExact(entityPlayer);
+            } catch (Throwable ignored) {
+                // fall back to looking up the field of the actual entity class
+            }
+        }
         ReflectionObject wrappedEntityPlayer = new ReflectionObject(entityPlayer, ENTITY_PLAYER_CLASS);
         if (TRANSFER_COOKIE_CONNECTION_CLASS != null) {
             return wrappedEntityPlayer.readObject(0, TRANSFER_COOKIE_CONNECTION_CLASS);
@@ -634,6 +705,16 @@ public final class SpigotReflectionUtil {
         if (playerConnection == null) {
             return null;
         }
+        if (MethodHandleHolder.NETWORK_MANAGER_GETTER != null && playerConnection.getClass() != SERVER_LOGIN_PACKET_LISTENER_IMPL_CLASS) {
+            try {
+                Object networkManager = (Object) MethodHandleHolder.NETWORK_MANAGER_GETTER.invokeExact(playerConnection);
+                if (networkManager != null) {
+                    return networkManager;
+                }
+            } catch (Throwable ignored) {
+                // custom player connections are handled below
+            }
+        }
         Class<?> playerConnectionClass;
         if (SERVER_COMMON_PACKETLISTENER_IMPL_CLASS != null) {
             playerConnectionClass = playerConnection.getClass() == SERVER_LOGIN_PACKET_LISTENER_IMPL_CLASS
@@ -663,6 +744,13 @@ public final class SpigotReflectionUtil {
         if (networkManager == null) {
             return null;
         }
+        if (MethodHandleHolder.CHANNEL_GETTER != null) {
+            try {
+                return (Object) MethodHandleHolder.CHANNEL_GETTER.invokeExact(networkManager);
+            } catch (Throwable throwable) {
+                throw new IllegalStateException("Failed to read the channel of " + networkManager, throwable);
+            }
+        }
         ReflectionObject wrapper = new ReflectionObject(networkManager, NETWORK_MANAGER_CLASS);
         return wrapper.readObject(0, CHANNEL_CLASS);
     }
@@ -682,7 +770,14 @@ public final class SpigotReflectionUtil {
         if (V_1_17_OR_HIGHER) {
             return -1;
         }
-        if (ENTITY_PLAYER_PING_FIELD != null) {
+        if (MethodHandleHolder.ENTITY_PLAYER_PING_GETTER != null) {
+            Object entityPlayer = getEntityPlayer(player);
+            try {
+                return (int) MethodHandleHolder.ENTITY_PLAYER_PING_GETTER.invokeExact(entityPlayer);
+            } catch (Throwable throwable) {
+                throwable.printStackTrace();
+            }
+        } else if (ENTITY_PLAYER_PING_FIELD != null) {
             Object entityPlayer = getEntityPlayer(player);
             try {
                 return ENTITY_PLAYER_PING_FIELD.getInt(entityPlayer);
@@ -1089,10 +1184,24 @@ public final class SpigotReflectionUtil {
         if (world == null) {
             return null;
         }
-        Entity cachedEntity = ENTITY_ID_CACHE.getOrDefault(id, null);
+        Entity cachedEntity = ENTITY_ID_INDEX.get(id);
         if (cachedEntity != null) {
             return cachedEntity;
         }
+        if (MethodHandleHolder.ENTITY_BY_ID_IN_WORLD != null) {
+            Object nmsEntity;
+            try {
+                nmsEntity = (Object) MethodHandleHolder.ENTITY_BY_ID_IN_WORLD.invokeExact((Object) world, id);
+            } catch (Throwable throwable) {
+                throw new RuntimeException("Error while looking up entity by id " + id + " in " + world, throwable);
+            }
+            if (nmsEntity == null) {
+                return null;
+            }
+            Entity entity = getBukkitEntity(nmsEntity);
+            ENTITY_ID_INDEX.put(id, entity);
+            return entity;
+        }
         try {
             Object serverLevel = GET_CRAFT_WORLD_HANDLE_METHOD.invoke(world);
             Object nmsEntity;
@@ -1117,7 +1226,7 @@ public final class SpigotReflectionUtil {
                 return null;
             }
             Entity entity = getBukkitEntity(nmsEntity);
-            ENTITY_ID_CACHE.put(id, entity);
+            ENTITY_ID_INDEX.put(id, entity);
             return entity;
         } catch (IllegalAccessException | InvocationTargetException exception) {
             throw new RuntimeException("Error while looking up entity by id " + id + " in " + world, exception);
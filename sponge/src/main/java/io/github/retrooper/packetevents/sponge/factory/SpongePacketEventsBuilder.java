@@ -174,6 +174,7 @@ public class SpongePacketEventsBuilder {
 
                     // Unregister all listeners. Because if we attempt to reload, we will end up with duplicate listeners.
                     getEventManager().unregisterAllListeners();
+                    getMetrics().unregisterMBean();
                     initialized = false;
                     terminated = true;
                 }
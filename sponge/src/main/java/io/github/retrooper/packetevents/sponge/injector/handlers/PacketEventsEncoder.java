@@ -81,8 +81,10 @@ public class PacketEventsEncoder extends MessageToMessageEncoder<ByteBuf> {
     private @Nullable PacketSendEvent handleClientBoundPacket(Channel channel, User user, UUID player, ByteBuf buffer, ChannelPromise promise) throws Exception {
         PacketSendEvent packetSendEvent = PacketEventsImplHelper.handleClientBoundPacket(channel, user, player == null ? null : Sponge.server().player(player).orElse(null), buffer, true);
         if (packetSendEvent != null && packetSendEvent.hasTasksAfterSend()) {
+            // don't hold on to the event itself, it may get recycled before the packet has been sent
+            List<Runnable> tasksAfterSend = packetSendEvent.getTasksAfterSend();
             promise.addListener((p) -> {
-                for (Runnable task : packetSendEvent.getTasksAfterSend()) {
+                for (Runnable task : tasksAfterSend) {
                     task.run();
                 }
             });
@@ -140,6 +140,21 @@ public class ByteBufOperatorModernImpl implements ByteBufOperator {
         return ((ByteBuf)buffer).getUnsignedByte(index);
     }
 
+    @Override
+    public void setByte(Object buffer, int index, int value) {
+        ((ByteBuf)buffer).setByte(index, value);
+    }
+
+    @Override
+    public int getInt(Object buffer, int index) {
+        return ((ByteBuf)buffer).getInt(index);
+    }
+
+    @Override
+    public void setInt(Object buffer, int index, int value) {
+        ((ByteBuf)buffer).setInt(index, value);
+    }
+
     @Override
     public boolean isReadable(Object buffer) {
         return ((ByteBuf)buffer).isReadable();
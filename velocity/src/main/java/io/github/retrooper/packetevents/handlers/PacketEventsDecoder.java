@@ -22,9 +22,11 @@ import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EnumUtil;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import com.github.retrooper.packetevents.util.reflection.Reflection;
 import com.velocitypowered.api.proxy.Player;
 import io.github.retrooper.packetevents.injector.ServerConnectionInitializer;
@@ -48,6 +50,14 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
 
     public void read(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> output) throws Exception {
+        PacketEventsImplHelper.recordPacket(user, byteBuf, false, PacketSide.CLIENT);
+        if (!PacketEventsImplHelper.isWithinLimits(user, byteBuf, false)) {
+            return; // drop the packet before anything gets decoded
+        }
+        if (!PacketEventsImplHelper.isPacketListened(user, byteBuf, false, PacketSide.CLIENT)) {
+            output.add(byteBuf.retain());
+            return;
+        }
         ByteBuf transformed = ctx.alloc().buffer().writeBytes(byteBuf);
         try {
             int firstReaderIndex = transformed.readerIndex();
@@ -69,6 +79,7 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
                     task.run();
                 }
             }
+            EventCreationUtil.recycleEvent(user, packetReceiveEvent);
         } finally {
             transformed.release();
         }
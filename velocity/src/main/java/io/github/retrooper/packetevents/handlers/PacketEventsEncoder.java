@@ -20,17 +20,20 @@ package io.github.retrooper.packetevents.handlers;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
-import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import com.velocitypowered.api.proxy.Player;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
 
 @ChannelHandler.Sharable
-public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
+public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
     public Player player;
     public User user;
 
@@ -38,39 +41,81 @@ public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
         this.user = user;
     }
 
-    public void read(ChannelHandlerContext ctx, ByteBuf buffer) throws Exception {
+    public void read(ChannelHandlerContext ctx, ByteBuf buffer, ChannelPromise promise) {
+        PacketEventsImplHelper.recordPacket(user, buffer, false, PacketSide.SERVER);
+        if (!PacketEventsImplHelper.isPacketListened(user, buffer, false, PacketSide.SERVER)) {
+            ctx.write(buffer, promise);
+            return;
+        }
         int firstReaderIndex = buffer.readerIndex();
-        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player, buffer,
-                false);
-        int readerIndex = buffer.readerIndex();
-        PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
-        if (!packetSendEvent.isCancelled()) {
-            if (packetSendEvent.getLastUsedWrapper() != null) {
-                ByteBufHelper.clear(packetSendEvent.getByteBuf());
-                packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
-                packetSendEvent.getLastUsedWrapper().write();
+        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player,
+                buffer, false);
+        ByteBuf newBuffer = null;
+        // whether the buffer has been passed on or released, it is released on failure otherwise
+        boolean handled = false;
+        try {
+            int readerIndex = buffer.readerIndex();
+            PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
+            if (packetSendEvent.isCancelled()) {
+                handled = true;
+                ReferenceCountUtil.release(packetSendEvent.getByteBuf());
+                promise.trySuccess();
+            } else if (packetSendEvent.getLastUsedWrapper() != null) {
+                // the buffer is processed in place, so it may only be rewritten if it isn't derived
+                // from another buffer and nobody else can see it
+                if (buffer.unwrap() == null && buffer.refCnt() == 1 && !buffer.isReadOnly()
+                        && buffer.maxCapacity() == Integer.MAX_VALUE) {
+                    buffer.clear();
+                    packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
+                    packetSendEvent.getLastUsedWrapper().write();
+                    handled = true;
+                    ctx.write(buffer, promise);
+                } else {
+                    newBuffer = ctx.alloc().buffer(buffer.capacity());
+                    packetSendEvent.setByteBuf(newBuffer);
+                    packetSendEvent.getLastUsedWrapper().buffer = newBuffer;
+                    packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
+                    packetSendEvent.getLastUsedWrapper().write();
+                    // only release the original once the packet has been written successfully
+                    handled = true;
+                    buffer.release();
+                    ByteBuf output = newBuffer;
+                    newBuffer = null;
+                    ctx.write(output, promise);
+                }
+            } else {
+                buffer.readerIndex(firstReaderIndex);
+                handled = true;
+                ctx.write(buffer, promise);
+            }
+        } finally {
+            if (newBuffer != null) {
+                newBuffer.release();
+            }
+            if (!handled) {
+                buffer.release();
             }
-            buffer.readerIndex(firstReaderIndex);
-        } else {
-            ByteBufHelper.clear(packetSendEvent.getByteBuf());
         }
         if (packetSendEvent.hasPostTasks()) {
             for (Runnable task : packetSendEvent.getPostTasks()) {
                 task.run();
             }
         }
+        EventCreationUtil.recycleEvent(user, packetSendEvent);
     }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception {
-        if (!msg.isReadable()) return;
-
-        ByteBuf transformed = ctx.alloc().buffer().writeBytes(msg);
-        try {
-            read(ctx, transformed);
-            out.writeBytes(transformed);
-        } finally {
-            transformed.release();
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (!(msg instanceof ByteBuf)) {
+            super.write(ctx, msg, promise);
+            return;
+        }
+        ByteBuf buf = (ByteBuf) msg;
+        if (!buf.isReadable()) {
+            buf.release();
+            promise.trySuccess();
+        } else {
+            this.read(ctx, buf, promise);
         }
     }
 
@@ -79,4 +124,3 @@ public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
         super.exceptionCaught(ctx, cause);
     }
 }
-
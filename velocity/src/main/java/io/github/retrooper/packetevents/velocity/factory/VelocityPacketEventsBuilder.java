@@ -237,6 +237,7 @@ public class VelocityPacketEventsBuilder {
                     injector.uninject();
                     // Unregister all our listeners
                     getEventManager().unregisterAllListeners();
+                    getMetrics().unregisterMBean();
                     initialized = false;
                     terminated = true;
                 }